@@ -22,6 +22,7 @@ import net.katsstuff.danmakucore.entity.living.boss.EntityDanmakuBoss;
 import net.katsstuff.danmakucore.entity.living.phase.PhaseType;
 import net.katsstuff.danmakucore.entity.spellcard.EntitySpellcard;
 import net.katsstuff.danmakucore.entity.spellcard.Spellcard;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
 import net.katsstuff.danmakucore.impl.danmakuvariant.DanmakuVariantGeneric;
 import net.katsstuff.danmakucore.impl.form.FormControl;
 import net.katsstuff.danmakucore.impl.form.FormCrystal1;
@@ -56,6 +57,7 @@ import net.katsstuff.danmakucore.lib.LibPhaseName;
 import net.katsstuff.danmakucore.lib.LibRegistryName;
 import net.katsstuff.danmakucore.lib.LibSubEntityName;
 import net.katsstuff.danmakucore.lib.data.LibShotData;
+import net.katsstuff.danmakucore.network.SimulatedDanmakuPacket;
 import net.katsstuff.danmakucore.network.SpellcardInfoPacket;
 import net.minecraft.client.particle.Particle;
 import net.minecraft.item.Item;
@@ -112,7 +114,13 @@ public class CommonProxy {
 	}
 
 	void registerEntities() {
-		EntityRegistry.registerModEntity(EntityDanmaku.class, LibEntityName.DANMAKU, 0, LibMod.MODID, 64, 1, true);
+		if(ConfigHandler.danmaku.clientPrediction) {
+			//Danmaku that can't be predicted force updates each tick themselves
+			EntityRegistry.registerModEntity(EntityDanmaku.class, LibEntityName.DANMAKU, 0, LibMod.MODID, 64, 100, false);
+		}
+		else {
+			EntityRegistry.registerModEntity(EntityDanmaku.class, LibEntityName.DANMAKU, 0, LibMod.MODID, 64, 1, true);
+		}
 		EntityRegistry.registerModEntity(EntitySpellcard.class, LibEntityName.SPELLCARD, 1, LibMod.MODID, 64, 1, true);
 		EntityRegistry.registerModEntity(EntityFallingData.class, LibEntityName.FALLING_DATA, 2, LibMod.MODID, 40, 1, true);
 	}
@@ -225,6 +233,11 @@ public class CommonProxy {
 	 */
 	public void handleSpellcardInfo(SpellcardInfoPacket.Message packet) {}
 
+	/**
+	 * Passes on danmaku simulated on the server to the client engine
+	 */
+	public void handleSimulatedDanmaku(SimulatedDanmakuPacket.Message packet) {}
+
 	public <T extends IGlowParticle> void addParticle(T particle) {}
 
 	@SuppressWarnings("deprecation") //We need the default value
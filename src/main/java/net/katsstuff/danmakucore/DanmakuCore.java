@@ -11,6 +11,7 @@ package net.katsstuff.danmakucore;
 import net.katsstuff.danmakucore.capability.CapabilityDanmakuCoreData;
 import net.katsstuff.danmakucore.capability.DanmakuCoreDataHandler;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorldHandler;
 import net.katsstuff.danmakucore.entity.EntityFallingData;
 import net.katsstuff.danmakucore.helper.DanmakuHelper;
 import net.katsstuff.danmakucore.item.ItemDanmaku;
@@ -18,7 +19,6 @@ import net.katsstuff.danmakucore.lib.LibMod;
 import net.katsstuff.danmakucore.lib.data.LibItems;
 import net.katsstuff.danmakucore.network.DanmakuCorePacketHandler;
 import net.katsstuff.danmakucore.server.commands.DanmakuCoreCmd;
-import net.katsstuff.danmakucore.shape.ShapeHandler;
 import net.minecraft.block.BlockDispenser;
 import net.minecraft.dispenser.IPosition;
 import net.minecraft.item.ItemStack;
@@ -73,7 +73,7 @@ public class DanmakuCore {
 	public void init(FMLInitializationEvent event) {
 		proxy.bakeRenderModels();
 		DanmakuCorePacketHandler.init();
-		MinecraftForge.EVENT_BUS.register(ShapeHandler.class);
+		MinecraftForge.EVENT_BUS.register(DanmakuWorldHandler.class);
 		MinecraftForge.EVENT_BUS.register(new DanmakuCoreDataHandler());
 
 		BlockDispenser.DISPENSE_BEHAVIOR_REGISTRY.putObject(LibItems.DANMAKU, ((source, stack) -> {
@@ -11,6 +11,7 @@ package net.katsstuff.danmakucore.client;
 import net.katsstuff.danmakucore.CommonProxy;
 import net.katsstuff.danmakucore.client.handler.BossBarHandler;
 import net.katsstuff.danmakucore.client.handler.HUDHandler;
+import net.katsstuff.danmakucore.client.handler.SimulatedDanmakuHandler;
 import net.katsstuff.danmakucore.client.handler.SpellcardHandler;
 import net.katsstuff.danmakucore.client.helper.RenderHelper;
 import net.katsstuff.danmakucore.client.particle.IGlowParticle;
@@ -31,6 +32,7 @@ import net.katsstuff.danmakucore.item.ItemDanmaku;
 import net.katsstuff.danmakucore.lib.data.LibDanmakuVariants;
 import net.katsstuff.danmakucore.lib.data.LibForms;
 import net.katsstuff.danmakucore.lib.data.LibItems;
+import net.katsstuff.danmakucore.network.SimulatedDanmakuPacket;
 import net.katsstuff.danmakucore.network.SpellcardInfoPacket;
 import net.katsstuff.danmakucore.registry.DanmakuRegistry;
 import net.minecraft.client.Minecraft;
@@ -49,6 +51,7 @@ public class ClientProxy extends CommonProxy {
 
 	private final BossBarHandler bossBarHandler = new BossBarHandler();
 	private final SpellcardHandler spellcardHandler = new SpellcardHandler();
+	private final SimulatedDanmakuHandler simulatedDanmakuHandler = new SimulatedDanmakuHandler();
 	public final ParticleRenderer particleRenderer = new ParticleRenderer();
 
 	@Override
@@ -76,6 +79,7 @@ public class ClientProxy extends CommonProxy {
 		MinecraftForge.EVENT_BUS.register(bossBarHandler);
 		MinecraftForge.EVENT_BUS.register(spellcardHandler);
 		MinecraftForge.EVENT_BUS.register(particleRenderer);
+		MinecraftForge.EVENT_BUS.register(simulatedDanmakuHandler);
 	}
 
 	@Override
@@ -128,6 +132,11 @@ public class ClientProxy extends CommonProxy {
 		spellcardHandler.handlePacket(packet);
 	}
 
+	@Override
+	public void handleSimulatedDanmaku(SimulatedDanmakuPacket.Message packet) {
+		simulatedDanmakuHandler.handlePacket(packet);
+	}
+
 	@Override
 	public <T extends IGlowParticle> void addParticle(T particle) {
 		particleRenderer.addParticle(particle);
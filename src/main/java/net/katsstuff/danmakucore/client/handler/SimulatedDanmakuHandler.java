@@ -0,0 +1,105 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.client.handler;
+
+import net.katsstuff.danmakucore.engine.DanmakuEngine;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.network.SimulatedDanmakuPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.entity.Render;
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Ticks and renders the danmaku simulated without entities on the client.
+ */
+@SideOnly(Side.CLIENT)
+public class SimulatedDanmakuHandler {
+
+	private static final double RENDER_RANGE_SQ = 128D * 128D;
+	private static final int PRUNE_INTERVAL = 200;
+
+	/**
+	 * An entity that is never spawned, but that we give the state of each
+	 * simulated danmaku so that the normal forms can render it.
+	 */
+	private EntityDanmaku renderProxy;
+
+	@SubscribeEvent
+	public void onTick(TickEvent.ClientTickEvent event) {
+		Minecraft mc = Minecraft.getMinecraft();
+		if(event.phase == TickEvent.Phase.START && mc.world != null && !mc.isGamePaused()) {
+			DanmakuWorld danmakuWorld = DanmakuWorld.get(mc.world);
+			danmakuWorld.getEngine().tick();
+			if(mc.world.getTotalWorldTime() % PRUNE_INTERVAL == 0) {
+				danmakuWorld.pruneFreezeGroups();
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public void onRender(RenderWorldLastEvent event) {
+		Minecraft mc = Minecraft.getMinecraft();
+		Entity view = mc.getRenderViewEntity();
+		if(mc.world == null || view == null) return;
+
+		DanmakuEngine engine = DanmakuWorld.get(mc.world).getEngine();
+		if(engine.getCount() == 0) return;
+
+		if(renderProxy == null || renderProxy.world != mc.world) {
+			renderProxy = new EntityDanmaku(mc.world);
+		}
+
+		float partialTicks = event.getPartialTicks();
+		double camX = view.lastTickPosX + (view.posX - view.lastTickPosX) * partialTicks;
+		double camY = view.lastTickPosY + (view.posY - view.lastTickPosY) * partialTicks;
+		double camZ = view.lastTickPosZ + (view.posZ - view.lastTickPosZ) * partialTicks;
+		Render<EntityDanmaku> render = mc.getRenderManager().getEntityClassRenderObject(EntityDanmaku.class);
+
+		mc.entityRenderer.enableLightmap();
+		OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, 240F, 240F);
+
+		for(int i = 0; i < engine.getCount(); i++) {
+			double x = engine.getRenderX(i, partialTicks);
+			double y = engine.getRenderY(i, partialTicks);
+			double z = engine.getRenderZ(i, partialTicks);
+			double dx = x - camX;
+			double dy = y - camY;
+			double dz = z - camZ;
+			if(dx * dx + dy * dy + dz * dz > RENDER_RANGE_SQ) continue;
+
+			renderProxy.setRenderShotData(engine.getShotData(i));
+			renderProxy.setRoll(engine.getRoll(i));
+			renderProxy.prevPosX = renderProxy.lastTickPosX = renderProxy.posX = x;
+			renderProxy.prevPosY = renderProxy.lastTickPosY = renderProxy.posY = y;
+			renderProxy.prevPosZ = renderProxy.lastTickPosZ = renderProxy.posZ = z;
+			renderProxy.prevRotationYaw = renderProxy.rotationYaw = engine.getRenderYaw(i, partialTicks);
+			renderProxy.prevRotationPitch = renderProxy.rotationPitch = engine.getRenderPitch(i, partialTicks);
+			renderProxy.ticksExisted = engine.getTicksExisted(i);
+
+			render.doRender(renderProxy, dx, dy, dz, renderProxy.rotationYaw, partialTicks);
+		}
+
+		mc.entityRenderer.disableLightmap();
+	}
+
+	public void handlePacket(SimulatedDanmakuPacket.Message message) {
+		World world = Minecraft.getMinecraft().world;
+		if(world != null) {
+			DanmakuWorld.get(world).getEngine().handlePacket(message.getData());
+		}
+	}
+}
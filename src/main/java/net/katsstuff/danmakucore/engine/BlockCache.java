@@ -0,0 +1,224 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+/**
+ * Remembers which chunk sections have been looked at this tick, so that
+ * danmaku flying through air can skip the vanilla block raytrace.
+ * The cache is cleared each tick, and entries are removed when a block
+ * in them is updated.
+ *
+ * Blocks can be placed without notifying their neighbours, in which case
+ * the cache is never told about it. Sections that were empty when they
+ * were cached are therefore looked up in their chunk again each time.
+ */
+@SuppressWarnings("WeakerAccess")
+public class BlockCache {
+
+	/**
+	 * If a segment touches more cells than this, we don't bother checking them all.
+	 */
+	private static final int MAX_CELLS = 64;
+
+	private static final Object EMPTY_SECTION = new Object();
+	private static final Object UNLOADED_SECTION = new Object();
+
+	private final World world;
+
+	private long[] keys = new long[256];
+	private Object[] sections = new Object[256];
+	//Entries are only valid if their stamp is the current one, so clearing never has to touch the keys
+	private int[] stamps = new int[256];
+	private int stamp = 1;
+	private int count = 0;
+
+	public BlockCache(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Clears the cache. Called at the start of each tick.
+	 */
+	public void clear() {
+		stamp++;
+		count = 0;
+		Arrays.fill(sections, null);
+	}
+
+	/**
+	 * Removes the cached section that contains a block.
+	 */
+	public void invalidate(BlockPos pos) {
+		long key = key(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+		int slot = findSlot(key);
+		if(stamps[slot] == stamp) {
+			//We can't just remove it from a linear probe table, so we clear everything instead. This should be rare
+			clear();
+		}
+	}
+
+	/**
+	 * Same as {@link World#rayTraceBlocks(Vec3d, Vec3d, boolean, boolean, boolean)} with the
+	 * arguments used by danmaku, but skips the raytrace if every block it can touch is air.
+	 */
+	@Nullable
+	public RayTraceResult rayTraceBlocks(Vec3d start, Vec3d end) {
+		if(isClear(start.xCoord, start.yCoord, start.zCoord, end.xCoord, end.yCoord, end.zCoord)) {
+			return null;
+		}
+
+		return world.rayTraceBlocks(start, end, false, true, false);
+	}
+
+	/**
+	 * Checks if all the blocks a segment might pass through are air.
+	 * The vanilla raytrace can look one block behind where it starts
+	 * when on a block edge, so we check one extra block on the lower side.
+	 */
+	public boolean isClear(double x1, double y1, double z1, double x2, double y2, double z2) {
+		int minX = (int)Math.floor(Math.min(x1, x2)) - 1;
+		int minY = (int)Math.floor(Math.min(y1, y2)) - 1;
+		int minZ = (int)Math.floor(Math.min(z1, z2)) - 1;
+		int maxX = (int)Math.floor(Math.max(x1, x2));
+		int maxY = (int)Math.floor(Math.max(y1, y2));
+		int maxZ = (int)Math.floor(Math.max(z1, z2));
+
+		//First check the sections, as most of the time they are all empty
+		boolean allEmpty = true;
+		for(int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+			for(int cy = minY >> 4; cy <= maxY >> 4; cy++) {
+				for(int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+					Object section = getSection(cx, cy, cz);
+					if(section == UNLOADED_SECTION) {
+						return false;
+					}
+					else if(getStorage(section, cy) != null) {
+						allEmpty = false;
+					}
+				}
+			}
+		}
+
+		if(allEmpty) return true;
+
+		if((maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1) > MAX_CELLS) {
+			return false;
+		}
+
+		for(int x = minX; x <= maxX; x++) {
+			for(int y = minY; y <= maxY; y++) {
+				for(int z = minZ; z <= maxZ; z++) {
+					ExtendedBlockStorage storage = getStorage(getSection(x >> 4, y >> 4, z >> 4), y >> 4);
+					if(storage != null && storage.get(x & 15, y & 15, z & 15).getMaterial() != Material.AIR) {
+						return false;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private Object getSection(int cx, int cy, int cz) {
+		long key = key(cx, cy, cz);
+		int slot = findSlot(key);
+		if(stamps[slot] == stamp) {
+			return sections[slot];
+		}
+
+		Object section = lookupSection(cx, cy, cz);
+
+		if((count + 1) * 2 > keys.length) {
+			rehash(keys.length * 2);
+			slot = findSlot(key);
+		}
+
+		keys[slot] = key;
+		sections[slot] = section;
+		stamps[slot] = stamp;
+		count++;
+		return section;
+	}
+
+	private Object lookupSection(int cx, int cy, int cz) {
+		if(cy < 0 || cy >= 16) {
+			return EMPTY_SECTION;
+		}
+
+		Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+		if(chunk == null) {
+			return UNLOADED_SECTION;
+		}
+
+		ExtendedBlockStorage storage = chunk.getBlockStorageArray()[cy];
+		//Empty sections are cached as their chunk, so that they can be checked again
+		return storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty() ? chunk : storage;
+	}
+
+	/**
+	 * Gets the blocks of a cached section, or null if the section is empty.
+	 */
+	@Nullable
+	private static ExtendedBlockStorage getStorage(Object section, int cy) {
+		if(section instanceof Chunk) {
+			ExtendedBlockStorage storage = ((Chunk)section).getBlockStorageArray()[cy];
+			return storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty() ? null : storage;
+		}
+
+		return section == EMPTY_SECTION ? null : (ExtendedBlockStorage)section;
+	}
+
+	private int findSlot(long key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while(stamps[slot] == stamp && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash(int newSize) {
+		long[] oldKeys = keys;
+		Object[] oldSections = sections;
+		int[] oldStamps = stamps;
+		keys = new long[newSize];
+		sections = new Object[newSize];
+		stamps = new int[newSize];
+
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldStamps[i] == stamp) {
+				int slot = findSlot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				sections[slot] = oldSections[i];
+				stamps[slot] = stamp;
+			}
+		}
+	}
+
+	private static long key(int cx, int cy, int cz) {
+		return (cx & 0x3FFFFFL) | (cy & 0xFFFFFL) << 22 | (cz & 0x3FFFFFL) << 42;
+	}
+
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int)(key ^ key >>> 32);
+	}
+}
@@ -0,0 +1,426 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+
+/**
+ * Keeps count of the live danmaku in a world, for each user and for each
+ * chunk, and enforces the limits set in the config when new danmaku join
+ * the world. Also keeps track of which danmaku each user has alive, so
+ * that they can all be removed at once when the user dies.
+ *
+ * Simulated danmaku are counted by the {@link DanmakuEngine}, but are held
+ * to the same limits, and can be removed to make room the same way.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DanmakuBudget {
+
+	/**
+	 * What to do when a new danmaku would go over a limit.
+	 */
+	public enum Policy {
+		/**
+		 * Don't spawn the new danmaku.
+		 */
+		REJECT,
+		/**
+		 * Kill the oldest danmaku the limit applies to.
+		 */
+		EVICT_OLDEST,
+		/**
+		 * Kill the danmaku the limit applies to that is furthest away from all players.
+		 */
+		EVICT_FARTHEST
+	}
+
+	private static final long NO_CHUNK = Long.MIN_VALUE;
+
+	private final World world;
+	private final DanmakuIndex index;
+
+	//Iterates from the oldest to the newest
+	private final Map<EntityDanmaku, Entry> entries = new LinkedHashMap<>();
+	private final Map<EntityLivingBase, Set<EntityDanmaku>> userDanmaku = new HashMap<>();
+	private final Map<Long, Integer> chunkCounts = new HashMap<>();
+	//Danmaku with a user that isn't loaded yet, by the UUID of the user
+	private final Map<UUID, Set<EntityDanmaku>> waitingForUser = new HashMap<>();
+
+	//The danmaku that can be removed to make room, in the order they are removed. Built when first needed
+	private final List<Candidate> candidates = new ArrayList<>();
+	private boolean candidatesBuilt = false;
+	private int candidatesStart = 0;
+
+	@Nullable
+	private EntityDanmaku exempt;
+
+	public DanmakuBudget(World world, DanmakuIndex index) {
+		this.world = world;
+		this.index = index;
+	}
+
+	/**
+	 * How many danmaku are alive in this world, including simulated danmaku.
+	 */
+	public int getWorldCount() {
+		return entries.size() + DanmakuWorld.get(world).getEngine().getCount();
+	}
+
+	/**
+	 * How many danmaku a user has alive in this world, including simulated danmaku.
+	 */
+	public int getUserCount(EntityLivingBase user) {
+		Set<EntityDanmaku> set = userDanmaku.get(user);
+		return (set == null ? 0 : set.size()) + DanmakuWorld.get(world).getEngine().getUserCount(user);
+	}
+
+	/**
+	 * Gets the danmaku entities a user has alive in this world, from the oldest to the newest.
+	 */
+	public Set<EntityDanmaku> getUserDanmaku(EntityLivingBase user) {
+		Set<EntityDanmaku> set = userDanmaku.get(user);
+		return set == null ? Collections.emptySet() : Collections.unmodifiableSet(set);
+	}
+
+	/**
+	 * Gets all the users that have danmaku entities alive in this world.
+	 */
+	public Set<EntityLivingBase> getUsers() {
+		return Collections.unmodifiableSet(userDanmaku.keySet());
+	}
+
+	/**
+	 * How many danmaku are in a chunk, including simulated danmaku.
+	 */
+	public int getChunkCount(int chunkX, int chunkZ) {
+		return chunkCounts.getOrDefault(chunkKey(chunkX, chunkZ), 0) + DanmakuWorld.get(world).getEngine().getChunkCount(chunkX, chunkZ);
+	}
+
+	/**
+	 * Lets the next danmaku join the world even if it goes over the limits.
+	 * Used for danmaku that are already counted in some other way.
+	 */
+	public void exemptNext(EntityDanmaku danmaku) {
+		exempt = danmaku;
+	}
+
+	/**
+	 * Starts counting a danmaku, if there is room for it.
+	 * @return If the danmaku can join the world.
+	 */
+	public boolean tryTrack(EntityDanmaku danmaku) {
+		if(entries.containsKey(danmaku)) return true;
+
+		EntityLivingBase user = danmaku.getUser().orElse(null);
+		long chunk = chunkKey(danmaku);
+
+		if(danmaku != exempt && !makeRoom(user, chunk)) return false;
+		exempt = null;
+
+		Entry entry = new Entry(user, chunk);
+		entries.put(danmaku, entry);
+		if(user != null) {
+			userDanmaku.computeIfAbsent(user, k -> new LinkedHashSet<>()).add(danmaku);
+		}
+		else {
+			entry.waitingFor = danmaku.getUserUuid();
+			if(entry.waitingFor != null) {
+				waitingForUser.computeIfAbsent(entry.waitingFor, k -> new HashSet<>()).add(danmaku);
+			}
+		}
+		chunkCounts.merge(chunk, 1, Integer::sum);
+		index.add(danmaku);
+		return true;
+	}
+
+	/**
+	 * Gives the danmaku that were loaded before their user to that user, now
+	 * that it has joined the world. Until then they are counted as having no user.
+	 */
+	public void onEntityJoin(Entity entity) {
+		if(waitingForUser.isEmpty() || !(entity instanceof EntityLivingBase)) return;
+
+		Set<EntityDanmaku> waiting = waitingForUser.remove(entity.getUniqueID());
+		if(waiting != null) {
+			EntityLivingBase user = (EntityLivingBase)entity;
+			for(EntityDanmaku danmaku : waiting) {
+				Entry entry = entries.get(danmaku);
+				if(entry != null) {
+					entry.user = user;
+					entry.waitingFor = null;
+					userDanmaku.computeIfAbsent(user, k -> new LinkedHashSet<>()).add(danmaku);
+					index.setCategory(danmaku, DanmakuIndex.Category.of(user));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if a new danmaku can be simulated by the {@link DanmakuEngine}
+	 * without going over the limits. Might kill other danmaku to make room.
+	 */
+	public boolean tryReserveSimulated(@Nullable EntityLivingBase user, Vector3 pos) {
+		return makeRoom(user, chunkKey((int)Math.floor(pos.x()) >> 4, (int)Math.floor(pos.z()) >> 4));
+	}
+
+	/**
+	 * Stops counting a danmaku. Does nothing if it isn't counted.
+	 */
+	public void untrack(EntityDanmaku danmaku) {
+		Entry entry = entries.remove(danmaku);
+		if(entry != null) {
+			if(entry.user != null) {
+				Set<EntityDanmaku> set = userDanmaku.get(entry.user);
+				if(set != null) {
+					set.remove(danmaku);
+					if(set.isEmpty()) {
+						userDanmaku.remove(entry.user);
+					}
+				}
+			}
+			else if(entry.waitingFor != null) {
+				decrementSet(waitingForUser, entry.waitingFor, danmaku);
+			}
+			decrement(chunkCounts, entry.chunk);
+			index.remove(danmaku);
+		}
+	}
+
+	/**
+	 * Moves a danmaku to the chunk, and chunk section, it's currently in.
+	 */
+	public void updateChunk(EntityDanmaku danmaku) {
+		Entry entry = entries.get(danmaku);
+		if(entry != null) {
+			long chunk = chunkKey(danmaku);
+			if(chunk != entry.chunk) {
+				decrement(chunkCounts, entry.chunk);
+				chunkCounts.merge(chunk, 1, Integer::sum);
+				entry.chunk = chunk;
+			}
+
+			index.move(danmaku);
+		}
+	}
+
+	/**
+	 * Forgets which danmaku can be removed to make room. Called after the
+	 * engine has ticked, as it can then reuse the handles of removed danmaku.
+	 */
+	void tick() {
+		candidates.clear();
+		candidatesBuilt = false;
+	}
+
+	//All the limits are checked before anything is removed, so that nothing is removed if the new danmaku can't join anyway
+	private boolean makeRoom(@Nullable EntityLivingBase user, long chunk) {
+		ConfigHandler.Danmaku config = ConfigHandler.danmaku;
+		boolean overWorld = isOver(getWorldCount(), config.maxDanmakuPerWorld);
+		boolean overUser = user != null && isOver(getUserCount(user), config.maxDanmakuPerUser);
+		boolean overChunk = isOver(getChunkCount((int)chunk, (int)(chunk >>> 32)), config.maxDanmakuPerChunk);
+
+		if(!overWorld && !overUser && !overChunk) return true;
+		if(config.limitPolicy == Policy.REJECT) return false;
+
+		//Preferably a single danmaku all the limits apply to
+		Candidate victim = findVictim(overUser ? user : null, overChunk ? chunk : NO_CHUNK);
+		if(victim != null) {
+			evict(victim);
+			return true;
+		}
+
+		//If not, one danmaku from the user, and another one in the chunk
+		if(overUser && overChunk) {
+			Candidate userVictim = findVictim(user, NO_CHUNK);
+			Candidate chunkVictim = userVictim == null ? null : findVictim(null, chunk);
+			if(chunkVictim != null) {
+				evict(userVictim);
+				evict(chunkVictim);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isOver(int count, int limit) {
+		return limit > 0 && count >= limit;
+	}
+
+	@Nullable
+	private Candidate findVictim(@Nullable EntityLivingBase user, long chunk) {
+		if(!candidatesBuilt) {
+			buildCandidates();
+		}
+
+		//Removed danmaku at the start are skipped for good
+		while(candidatesStart < candidates.size() && !matches(candidates.get(candidatesStart), null, NO_CHUNK)) {
+			candidatesStart++;
+		}
+
+		for(int i = candidatesStart; i < candidates.size(); i++) {
+			Candidate candidate = candidates.get(i);
+			if(matches(candidate, user, chunk)) {
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Sorts all the danmaku in the world by how soon they should be removed to
+	 * make room. Done at most once a tick, as the danmaku don't move much
+	 * during a tick. Danmaku that join after this are not removed before the next tick.
+	 */
+	private void buildCandidates() {
+		candidates.clear();
+		candidatesStart = 0;
+		for(Map.Entry<EntityDanmaku, Entry> mapEntry : entries.entrySet()) {
+			EntityDanmaku danmaku = mapEntry.getKey();
+			Entry entry = mapEntry.getValue();
+			candidates.add(new Candidate(danmaku, -1, entry.user, entry.chunk, danmaku.ticksExisted, danmaku.posX, danmaku.posY, danmaku.posZ));
+		}
+		DanmakuWorld.get(world).getEngine().collectEvictionCandidates(candidates);
+
+		if(ConfigHandler.danmaku.limitPolicy == Policy.EVICT_FARTHEST) {
+			for(Candidate candidate : candidates) {
+				double distSq = Double.MAX_VALUE;
+				for(EntityPlayer player : world.playerEntities) {
+					distSq = Math.min(distSq, player.getDistanceSq(candidate.x, candidate.y, candidate.z));
+				}
+				candidate.score = distSq;
+			}
+		}
+		else {
+			for(Candidate candidate : candidates) {
+				candidate.score = candidate.age;
+			}
+		}
+
+		//The sort is stable, so danmaku of the same age are still removed in the order they joined
+		candidates.sort(Comparator.comparingDouble((Candidate candidate) -> candidate.score).reversed());
+		candidatesBuilt = true;
+	}
+
+	//Also checks that the danmaku is still alive
+	private boolean matches(Candidate candidate, @Nullable EntityLivingBase user, long chunk) {
+		if(candidate.danmaku != null) {
+			//Entities can move, and get a user, after the candidates are built
+			Entry entry = entries.get(candidate.danmaku);
+			return entry != null && !candidate.danmaku.isDead && entry.matches(user, chunk);
+		}
+		else {
+			//Simulated danmaku only move when the engine ticks, after which the candidates are built again
+			return DanmakuWorld.get(world).getEngine().isAlive(candidate.handle) && (user == null || candidate.user == user)
+					&& (chunk == NO_CHUNK || candidate.chunk == chunk);
+		}
+	}
+
+	private void evict(Candidate candidate) {
+		if(candidate.danmaku != null) {
+			candidate.danmaku.setDead();
+			untrack(candidate.danmaku);
+		}
+		else {
+			DanmakuWorld.get(world).getEngine().remove(candidate.handle);
+		}
+	}
+
+	private static <K> void decrement(Map<K, Integer> counts, K key) {
+		counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+	}
+
+	private static <K> void decrementSet(Map<K, Set<EntityDanmaku>> sets, K key, EntityDanmaku danmaku) {
+		Set<EntityDanmaku> set = sets.get(key);
+		if(set != null) {
+			set.remove(danmaku);
+			if(set.isEmpty()) {
+				sets.remove(key);
+			}
+		}
+	}
+
+	private static long chunkKey(EntityDanmaku danmaku) {
+		return chunkKey((int)Math.floor(danmaku.posX) >> 4, (int)Math.floor(danmaku.posZ) >> 4);
+	}
+
+	private static long chunkKey(int chunkX, int chunkZ) {
+		return (chunkX & 0xFFFFFFFFL) | (chunkZ & 0xFFFFFFFFL) << 32;
+	}
+
+	/**
+	 * A danmaku that can be removed to make room, either an entity or a simulated danmaku.
+	 */
+	static class Candidate {
+
+		@Nullable
+		private final EntityDanmaku danmaku;
+		private final int handle;
+		@Nullable
+		private final EntityLivingBase user;
+		private final long chunk;
+		private final int age;
+		private final double x;
+		private final double y;
+		private final double z;
+		private double score;
+
+		Candidate(@Nullable EntityDanmaku danmaku, int handle, @Nullable EntityLivingBase user, long chunk, int age, double x, double y,
+				double z) {
+			this.danmaku = danmaku;
+			this.handle = handle;
+			this.user = user;
+			this.chunk = chunk;
+			this.age = age;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+	}
+
+	private static class Entry {
+
+		@Nullable
+		private EntityLivingBase user;
+		//The UUID of the user if it wasn't loaded when the danmaku joined the world
+		@Nullable
+		private UUID waitingFor;
+		private long chunk;
+
+		private Entry(@Nullable EntityLivingBase user, long chunk) {
+			this.user = user;
+			this.chunk = chunk;
+		}
+
+		private boolean matches(@Nullable EntityLivingBase user, long chunk) {
+			return (user == null || this.user == user) && (chunk == NO_CHUNK || this.chunk == chunk);
+		}
+	}
+}
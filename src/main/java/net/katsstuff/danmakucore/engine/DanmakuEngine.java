@@ -0,0 +1,1272 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import com.google.common.math.DoubleMath;
+
+import io.netty.buffer.Unpooled;
+import net.katsstuff.danmakucore.data.MovementData;
+import net.katsstuff.danmakucore.data.Quat;
+import net.katsstuff.danmakucore.data.RotationData;
+import net.katsstuff.danmakucore.data.ShotData;
+import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.entity.danmaku.FreezeGroup;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
+import net.katsstuff.danmakucore.helper.CollisionHelper;
+import net.katsstuff.danmakucore.helper.DanmakuHelper;
+import net.katsstuff.danmakucore.network.DanmakuCorePacketHandler;
+import net.katsstuff.danmakucore.network.SimulatedDanmakuPacket;
+import net.minecraft.block.material.Material;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Simulates danmaku without creating an entity for each of them. All the state
+ * is kept in parallel arrays, and updated in a single loop that does the same as
+ * {@link net.katsstuff.danmakucore.impl.subentity.SubEntityTypeDefault.SubEntityDefault#subEntityTick()}.
+ *
+ * As soon as a danmaku might hit something, or ends up in water, it is turned
+ * into a normal {@link EntityDanmaku} which then takes over from the state it
+ * had at the start of the tick. Because of this, only danmaku where both the
+ * form and subentity returns true for canBeSimulated should be added here.
+ *
+ * The client keeps its own engine for each world, which the server fills in
+ * through {@link SimulatedDanmakuPacket}. The client runs the same movement
+ * code, but never checks for hits.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DanmakuEngine {
+
+	public static final byte ACTION_SPAWN = 0;
+	public static final byte ACTION_REMOVE = 1;
+
+	private static final double EPSILON = 1E-5;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final double SYNC_RANGE_SQ = 64D * 64D;
+	private static final int RESYNC_INTERVAL = 10;
+	//How many danmaku are needed before we compute on other threads, and how many each task gets
+	private static final int PARALLEL_THRESHOLD = 2048;
+	private static final int SPLIT_SIZE = 512;
+
+	//Shared by all the engines, as only one world ticks at a time
+	private static ForkJoinPool computePool;
+
+	/**
+	 * The size of the bounding box an entity has if complex hitboxes are disabled.
+	 */
+	private static final double DEFAULT_ENTITY_HEIGHT = 1.8D;
+
+	private final World world;
+	private final BlockPos.MutableBlockPos scratchPos = new BlockPos.MutableBlockPos();
+
+	private int size = 0;
+
+	//Handle -> index. -1 if the handle isn't used
+	private int[] indexOfHandle = new int[INITIAL_CAPACITY];
+	private int nextHandle = 0;
+	private int[] freeHandles = new int[INITIAL_CAPACITY];
+	private int freeHandleCount = 0;
+
+	//Handles are only reused once all the clients know they have been removed
+	private int[] removedHandles = new int[INITIAL_CAPACITY];
+	private int removedCount = 0;
+	private int[] spawnedHandles = new int[INITIAL_CAPACITY];
+	private int spawnedCount = 0;
+	//The handles each player knows about. Only used on the server
+	private final Map<EntityPlayerMP, BitSet> sentHandles = new HashMap<>();
+	private int ticksSinceResync = 0;
+	//The handles of the danmaku in each chunk, found the first time a chunk is saved in a tick
+	private final Map<Long, List<Integer>> chunkIndex = new HashMap<>();
+	private long chunkIndexTick = -1;
+
+	//Only kept on the server, for the DanmakuBudget
+	private final Map<EntityLivingBase, Integer> userCounts = new HashMap<>();
+	private final Map<Long, Integer> chunkCounts = new HashMap<>();
+
+	private int[] handles = new int[INITIAL_CAPACITY];
+	private ShotData[] shots = new ShotData[INITIAL_CAPACITY];
+	private EntityLivingBase[] users = new EntityLivingBase[INITIAL_CAPACITY];
+	private Entity[] sources = new Entity[INITIAL_CAPACITY];
+	private FreezeGroup[] freezeGroups = new FreezeGroup[INITIAL_CAPACITY];
+	private boolean[] ephemeral = new boolean[INITIAL_CAPACITY];
+	private long[] chunks = new long[INITIAL_CAPACITY];
+
+	private double[] posX = new double[INITIAL_CAPACITY];
+	private double[] posY = new double[INITIAL_CAPACITY];
+	private double[] posZ = new double[INITIAL_CAPACITY];
+	private double[] prevPosX = new double[INITIAL_CAPACITY];
+	private double[] prevPosY = new double[INITIAL_CAPACITY];
+	private double[] prevPosZ = new double[INITIAL_CAPACITY];
+	private double[] motionX = new double[INITIAL_CAPACITY];
+	private double[] motionY = new double[INITIAL_CAPACITY];
+	private double[] motionZ = new double[INITIAL_CAPACITY];
+	private double[] angleX = new double[INITIAL_CAPACITY];
+	private double[] angleY = new double[INITIAL_CAPACITY];
+	private double[] angleZ = new double[INITIAL_CAPACITY];
+
+	private float[] yaw = new float[INITIAL_CAPACITY];
+	private float[] pitch = new float[INITIAL_CAPACITY];
+	private float[] prevYaw = new float[INITIAL_CAPACITY];
+	private float[] prevPitch = new float[INITIAL_CAPACITY];
+	private float[] roll = new float[INITIAL_CAPACITY];
+
+	private int[] ticksExisted = new int[INITIAL_CAPACITY];
+	private int[] delay = new int[INITIAL_CAPACITY];
+
+	private double[] speedOriginal = new double[INITIAL_CAPACITY];
+	private double[] lowerSpeedLimit = new double[INITIAL_CAPACITY];
+	private double[] upperSpeedLimit = new double[INITIAL_CAPACITY];
+	private double[] speedAcceleration = new double[INITIAL_CAPACITY];
+	private double[] gravityX = new double[INITIAL_CAPACITY];
+	private double[] gravityY = new double[INITIAL_CAPACITY];
+	private double[] gravityZ = new double[INITIAL_CAPACITY];
+
+	private boolean[] rotationEnabled = new boolean[INITIAL_CAPACITY];
+	private double[] rotationX = new double[INITIAL_CAPACITY];
+	private double[] rotationY = new double[INITIAL_CAPACITY];
+	private double[] rotationZ = new double[INITIAL_CAPACITY];
+	private double[] rotationW = new double[INITIAL_CAPACITY];
+	private int[] rotationEnd = new int[INITIAL_CAPACITY];
+
+	//The motion computed for the next tick, before it's applied
+	private double[] nextMotionX = new double[INITIAL_CAPACITY];
+	private double[] nextMotionY = new double[INITIAL_CAPACITY];
+	private double[] nextMotionZ = new double[INITIAL_CAPACITY];
+	private double[] nextAngleX = new double[INITIAL_CAPACITY];
+	private double[] nextAngleY = new double[INITIAL_CAPACITY];
+	private double[] nextAngleZ = new double[INITIAL_CAPACITY];
+	private float[] nextYaw = new float[INITIAL_CAPACITY];
+	private float[] nextPitch = new float[INITIAL_CAPACITY];
+	private float[] nextPrevYaw = new float[INITIAL_CAPACITY];
+	private float[] nextPrevPitch = new float[INITIAL_CAPACITY];
+
+	public DanmakuEngine(World world) {
+		Arrays.fill(indexOfHandle, -1);
+		this.world = world;
+	}
+
+	/**
+	 * Adds a new danmaku to the simulation.
+	 * @return The handle of the new danmaku.
+	 */
+	public int spawn(DanmakuTemplate template) {
+		int handle = freeHandleCount > 0 ? freeHandles[--freeHandleCount] : nextHandle++;
+		int i = add(handle);
+
+		ShotData shot = template.shot;
+		shots[i] = shot;
+		users[i] = template.user;
+		sources[i] = template.source;
+		freezeGroups[i] = template.freezeGroup;
+		ephemeral[i] = template.ephemeral;
+
+		posX[i] = prevPosX[i] = template.pos.x();
+		posY[i] = prevPosY[i] = template.pos.y();
+		posZ[i] = prevPosZ[i] = template.pos.z();
+		angleX[i] = template.angle.x();
+		angleY[i] = template.angle.y();
+		angleZ[i] = template.angle.z();
+		roll[i] = template.roll;
+
+		if(!world.isRemote) {
+			chunks[i] = chunkKey(i);
+			chunkCounts.merge(chunks[i], 1, Integer::sum);
+			if(users[i] != null) {
+				userCounts.merge(users[i], 1, Integer::sum);
+			}
+		}
+
+		ticksExisted[i] = 0;
+		delay[i] = shot.delay();
+
+		MovementData movement = template.movement;
+		speedOriginal[i] = movement.getSpeedOriginal();
+		lowerSpeedLimit[i] = movement.getLowerSpeedLimit();
+		upperSpeedLimit[i] = movement.getUpperSpeedLimit();
+		speedAcceleration[i] = movement.getSpeedAcceleration();
+		gravityX[i] = movement.getGravity().x();
+		gravityY[i] = movement.getGravity().y();
+		gravityZ[i] = movement.getGravity().z();
+
+		RotationData rotation = template.rotation;
+		Quat quat = rotation.getRotationQuat();
+		rotationEnabled[i] = rotation.isEnabled();
+		rotationX[i] = quat.x();
+		rotationY[i] = quat.y();
+		rotationZ[i] = quat.z();
+		rotationW[i] = quat.w();
+		rotationEnd[i] = rotation.getEndTime();
+
+		resetMotion(i);
+		//In case it's spawned while the engine is ticking
+		computeMotion(i);
+
+		spawnedHandles = ensureCapacity(spawnedHandles, spawnedCount + 1);
+		spawnedHandles[spawnedCount++] = handle;
+		return handle;
+	}
+
+	/**
+	 * Updates all the simulated danmaku. This is done in two steps. First the new
+	 * motion of all the danmaku is computed, on many threads if there are
+	 * enough danmaku. Then each danmaku is checked for hits and moved, one at a time.
+	 * As the first step only looks at the state from the last tick, the result is
+	 * the same no matter how many threads are used.
+	 */
+	public void tick() {
+		boolean remote = world.isRemote;
+		computeAll();
+
+		int i = 0;
+		while(i < size) {
+			if(isFrozen(i)) {
+				//Frozen danmaku don't change at all, we only stop them from being interpolated
+				prevPosX[i] = posX[i];
+				prevPosY[i] = posY[i];
+				prevPosZ[i] = posZ[i];
+				prevYaw[i] = yaw[i];
+				prevPitch[i] = pitch[i];
+				i++;
+			}
+			//If a danmaku is removed, the last one is moved into it's place, so we don't advance
+			else if(tickDanmaku(i, remote)) {
+				i++;
+			}
+		}
+
+		if(!remote) {
+			syncToClients();
+		}
+		chunkIndexTick = -1;
+	}
+
+	private void computeAll() {
+		int threads = getThreadCount();
+		if(threads <= 1 || size < PARALLEL_THRESHOLD) {
+			computeRange(0, size);
+		}
+		else {
+			getComputePool(threads).invoke(new ComputeTask(0, size));
+		}
+	}
+
+	private void computeRange(int from, int to) {
+		for(int i = from; i < to; i++) {
+			if(!isFrozen(i)) {
+				computeMotion(i);
+			}
+		}
+	}
+
+	private boolean isFrozen(int i) {
+		FreezeGroup freezeGroup = freezeGroups[i];
+		return freezeGroup != null && freezeGroup.isFrozen();
+	}
+
+	private static int getThreadCount() {
+		int threads = ConfigHandler.danmaku.simulationThreads;
+		return threads > 0 ? threads : Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+	}
+
+	private static synchronized ForkJoinPool getComputePool(int threads) {
+		if(computePool == null || computePool.getParallelism() != threads) {
+			if(computePool != null) {
+				computePool.shutdown();
+			}
+			computePool = new ForkJoinPool(threads);
+		}
+
+		return computePool;
+	}
+
+	/**
+	 * Computes the motion for a range of danmaku, splitting it up if it's too big.
+	 */
+	private class ComputeTask extends RecursiveAction {
+
+		private final int from;
+		private final int to;
+
+		private ComputeTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= SPLIT_SIZE) {
+				computeRange(from, to);
+			}
+			else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ComputeTask(from, middle), new ComputeTask(middle, to));
+			}
+		}
+	}
+
+	/**
+	 * Computes the new angle, motion and rotation of a danmaku from it's current
+	 * state, and stores them in the next arrays. Only reads the state of this
+	 * danmaku, and doesn't touch the world, so it's safe to call from many threads at once.
+	 */
+	private void computeMotion(int i) {
+		double mx = motionX[i];
+		double my = motionY[i];
+		double mz = motionZ[i];
+		double ax = angleX[i];
+		double ay = angleY[i];
+		double az = angleZ[i];
+		float newYaw = yaw[i];
+		float newPitch = pitch[i];
+		float newPrevYaw = newYaw;
+		float newPrevPitch = newPitch;
+
+		int delayLeft = delay[i];
+		if(delayLeft > 0) {
+			if(delayLeft - 1 <= 0) {
+				mx = ax * speedOriginal[i];
+				my = ay * speedOriginal[i];
+				mz = az * speedOriginal[i];
+
+				newPrevYaw = newYaw = (float)Math.toDegrees(-Math.atan2(ax, az));
+				newPrevPitch = newPitch = (float)Math.toDegrees(-MathHelper.atan2(ay, Math.sqrt(ax * ax + az * az)));
+			}
+			else {
+				mx = 0D;
+				my = 0D;
+				mz = 0D;
+			}
+		}
+		else {
+			if(rotationEnabled[i] && ticksExisted[i] + 1 < rotationEnd[i]) {
+				double qx = rotationX[i];
+				double qy = rotationY[i];
+				double qz = rotationZ[i];
+				double qw = rotationW[i];
+				double s = qx * ax + qy * ay + qz * az;
+
+				double rx = 2 * (qw * (ax * qw - (qy * az - qz * ay)) + s * qx) - ax;
+				double ry = 2 * (qw * (ay * qw - (qz * ax - qx * az)) + s * qy) - ay;
+				double rz = 2 * (qw * (az * qw - (qx * ay - qy * ax)) + s * qz) - az;
+				ax = rx;
+				ay = ry;
+				az = rz;
+			}
+
+			//Accelerate
+			double currentSpeed = Math.sqrt(mx * mx + my * my + mz * mz);
+			double speedAccel = speedAcceleration[i];
+			double upperLimit = upperSpeedLimit[i];
+			double lowerLimit = lowerSpeedLimit[i];
+
+			if(DoubleMath.fuzzyCompare(currentSpeed, upperLimit, EPSILON) >= 0 && speedAccel >= 0D) {
+				mx = ax * upperLimit;
+				my = ay * upperLimit;
+				mz = az * upperLimit;
+			}
+			else if(DoubleMath.fuzzyCompare(currentSpeed, lowerLimit, EPSILON) <= 0 && speedAccel <= 0D) {
+				mx = ax * lowerLimit;
+				my = ay * lowerLimit;
+				mz = az * lowerLimit;
+			}
+			else {
+				mx += ax * speedAccel;
+				my += ay * speedAccel;
+				mz += az * speedAccel;
+
+				double newCurrentSpeed = Math.sqrt(mx * mx + my * my + mz * mz);
+				if(DoubleMath.fuzzyCompare(newCurrentSpeed, upperLimit, EPSILON) > 0) {
+					mx = ax * upperLimit;
+					my = ay * upperLimit;
+					mz = az * upperLimit;
+				}
+				else if(DoubleMath.fuzzyCompare(newCurrentSpeed, lowerLimit, EPSILON) < 0) {
+					mx = ax * lowerLimit;
+					my = ay * lowerLimit;
+					mz = az * lowerLimit;
+				}
+			}
+
+			mx += gravityX[i];
+			my += gravityY[i];
+			mz += gravityZ[i];
+
+			//Same as ProjectileHelper.rotateTowardsMovement
+			if(mx != 0D && my != 0D && mz != 0D) {
+				double horizontal = Math.sqrt(mx * mx + mz * mz);
+				newYaw = (float)(MathHelper.atan2(mz, mx) * (180D / Math.PI)) + 90F;
+				newPitch = (float)(MathHelper.atan2(horizontal, my) * (180D / Math.PI)) - 90F;
+
+				while(newPitch - newPrevPitch < -180F) newPrevPitch -= 360F;
+				while(newPitch - newPrevPitch >= 180F) newPrevPitch += 360F;
+				while(newYaw - newPrevYaw < -180F) newPrevYaw -= 360F;
+				while(newYaw - newPrevYaw >= 180F) newPrevYaw += 360F;
+			}
+		}
+
+		nextMotionX[i] = mx;
+		nextMotionY[i] = my;
+		nextMotionZ[i] = mz;
+		nextAngleX[i] = ax;
+		nextAngleY[i] = ay;
+		nextAngleZ[i] = az;
+		nextYaw[i] = newYaw;
+		nextPitch[i] = newPitch;
+		nextPrevYaw[i] = newPrevYaw;
+		nextPrevPitch[i] = newPrevPitch;
+	}
+
+	/**
+	 * Checks a single danmaku for hits and other changes that need the world,
+	 * and then moves it using what {@link #computeMotion(int)} found.
+	 * @return If the danmaku is still being simulated.
+	 */
+	private boolean tickDanmaku(int i, boolean remote) {
+		ShotData shot = shots[i];
+
+		if(!remote) {
+			if(ticksExisted[i] > shot.end()) {
+				removeAt(i);
+				return false;
+			}
+
+			EntityLivingBase user = users[i];
+			if(user != null && user.isDead) {
+				DanmakuHelper.spawnFinishBonus(world, user, new Vector3(posX[i], posY[i], posZ[i]), shot);
+				removeAt(i);
+				return false;
+			}
+
+			if(!world.isBlockLoaded(scratchPos.setPos(posX[i], posY[i], posZ[i]))) {
+				removeAt(i);
+				return false;
+			}
+		}
+
+		double mx = nextMotionX[i];
+		double my = nextMotionY[i];
+		double mz = nextMotionZ[i];
+
+		if(delay[i] > 0) {
+			delay[i]--;
+		}
+		else {
+			if(!remote && isInWater(i)) {
+				materializeAt(i);
+				return false;
+			}
+
+			if(!remote && mightHit(i, mx, my, mz)) {
+				materializeAt(i);
+				return false;
+			}
+
+			angleX[i] = nextAngleX[i];
+			angleY[i] = nextAngleY[i];
+			angleZ[i] = nextAngleZ[i];
+			ticksExisted[i]++;
+		}
+
+		motionX[i] = mx;
+		motionY[i] = my;
+		motionZ[i] = mz;
+		yaw[i] = nextYaw[i];
+		pitch[i] = nextPitch[i];
+		prevYaw[i] = nextPrevYaw[i];
+		prevPitch[i] = nextPrevPitch[i];
+
+		prevPosX[i] = posX[i];
+		prevPosY[i] = posY[i];
+		prevPosZ[i] = posZ[i];
+		posX[i] += mx;
+		posY[i] += my;
+		posZ[i] += mz;
+
+		if(!remote) {
+			long chunk = chunkKey(i);
+			if(chunk != chunks[i]) {
+				decrement(chunkCounts, chunks[i]);
+				chunkCounts.merge(chunk, 1, Integer::sum);
+				chunks[i] = chunk;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The distance the bounding box of the danmaku can reach out from it's position.
+	 * This is bigger than the real bounding box, no matter how it's rotated.
+	 */
+	private double boundingExtent(int i) {
+		ShotData shot = shots[i];
+		double sizeX = shot.sizeX();
+		double sizeY = shot.sizeY();
+		double sizeZ = shot.sizeZ();
+		return Math.max(Math.sqrt(sizeX * sizeX + sizeY * sizeY + sizeZ * sizeZ), DEFAULT_ENTITY_HEIGHT);
+	}
+
+	private AxisAlignedBB boundingBox(int i) {
+		double extent = boundingExtent(i);
+		return new AxisAlignedBB(posX[i] - extent, posY[i] - extent, posZ[i] - extent, posX[i] + extent, posY[i] + extent, posZ[i] + extent);
+	}
+
+	private boolean isInWater(int i) {
+		double extent = boundingExtent(i);
+		if(DanmakuWorld.get(world).getBlockCache().isClear(posX[i] - extent, posY[i] - extent, posZ[i] - extent, posX[i] + extent, posY[i] + extent,
+				posZ[i] + extent)) {
+			return false;
+		}
+
+		return world.isMaterialInBB(boundingBox(i), Material.WATER);
+	}
+
+	/**
+	 * Checks if the danmaku might hit something this tick. Uses the same checks as
+	 * {@link net.katsstuff.danmakucore.impl.subentity.SubEntityAbstract}, but with a
+	 * bigger bounding box, so if the entity would hit something, this will always
+	 * return true.
+	 */
+	private boolean mightHit(int i, double mx, double my, double mz) {
+		double startX = posX[i];
+		double startY = posY[i];
+		double startZ = posZ[i];
+		double endX = startX + mx;
+		double endY = startY + my;
+		double endZ = startZ + mz;
+
+		DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+		if(!danmakuWorld.getBlockCache().isClear(startX, startY, startZ, endX, endY, endZ)
+				&& world.rayTraceBlocks(new Vec3d(startX, startY, startZ), new Vec3d(endX, endY, endZ), false, true, false) != null) {
+			return true;
+		}
+
+		double extent = boundingExtent(i) + 1D;
+		List<Entity> list = danmakuWorld.getCollidableEntities(
+				Math.min(startX, endX) - extent, Math.min(startY, endY) - extent, Math.min(startZ, endZ) - extent,
+				Math.max(startX, endX) + extent, Math.max(startY, endY) + extent, Math.max(startZ, endZ) + extent,
+				null, users[i], sources[i]);
+
+		//noinspection ForLoopReplaceableByForEach
+		for(int j = 0; j < list.size(); j++) {
+			Entity entity = list.get(j);
+			if(!entity.noClip) {
+				AxisAlignedBB box = entity.getEntityBoundingBox();
+				if(CollisionHelper.interceptDistanceSq(box.minX - 0.3D, box.minY - 0.3D, box.minZ - 0.3D, box.maxX + 0.3D, box.maxY + 0.3D,
+						box.maxZ + 0.3D, startX, startY, startZ, endX, endY, endZ) >= 0D) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Same as {@link EntityDanmaku#resetMotion()}
+	 */
+	private void resetMotion(int i) {
+		double speed = speedOriginal[i];
+		motionX[i] = angleX[i] * speed;
+		motionY[i] = angleY[i] * speed;
+		motionZ[i] = angleZ[i] * speed;
+
+		prevYaw[i] = yaw[i] = (float)Math.toDegrees(-Math.atan2(angleX[i], angleZ[i]));
+		prevPitch[i] = pitch[i] = (float)Math.toDegrees(-MathHelper.atan2(angleY[i], Math.sqrt(angleX[i] * angleX[i] + angleZ[i] * angleZ[i])));
+	}
+
+	/**
+	 * Turns a simulated danmaku into a normal entity.
+	 * @return The new entity, or null if the handle isn't used.
+	 */
+	@Nullable
+	public EntityDanmaku materialize(int handle) {
+		int i = indexOf(handle);
+		return i == -1 ? null : materializeAt(i);
+	}
+
+	private EntityDanmaku materializeAt(int i) {
+		EntityDanmaku danmaku = createEntity(i);
+		removeAt(i);
+		//Already counted as a simulated danmaku
+		DanmakuWorld.get(world).getBudget().exemptNext(danmaku);
+		world.spawnEntityInWorld(danmaku);
+		return danmaku;
+	}
+
+	//Creates an entity with the current state of a simulated danmaku, without spawning it
+	private EntityDanmaku createEntity(int i) {
+		MovementData movement = new MovementData(speedOriginal[i], lowerSpeedLimit[i], upperSpeedLimit[i], speedAcceleration[i],
+				new Vector3(gravityX[i], gravityY[i], gravityZ[i]));
+		RotationData rotation = new RotationData(rotationEnabled[i], new Quat(rotationX[i], rotationY[i], rotationZ[i], rotationW[i]),
+				rotationEnd[i]);
+		Vector3 pos = new Vector3(posX[i], posY[i], posZ[i]);
+		Vector3 angle = new Vector3(angleX[i], angleY[i], angleZ[i]);
+
+		EntityDanmaku danmaku = new EntityDanmaku(world, users[i], sources[i], shots[i].setDelay(delay[i]), pos, angle, roll[i], movement,
+				rotation);
+		danmaku.motionX = motionX[i];
+		danmaku.motionY = motionY[i];
+		danmaku.motionZ = motionZ[i];
+		danmaku.prevRotationYaw = danmaku.rotationYaw = yaw[i];
+		danmaku.prevRotationPitch = danmaku.rotationPitch = pitch[i];
+		danmaku.ticksExisted = ticksExisted[i];
+		danmaku.setFreezeGroup(freezeGroups[i]);
+		danmaku.setEphemeral(ephemeral[i]);
+		//Set the position again now that we have the correct rotation
+		danmaku.setPosition(pos.x(), pos.y(), pos.z());
+		return danmaku;
+	}
+
+	/**
+	 * Writes the simulated danmaku in a chunk to the entity list of that chunk,
+	 * so that they are loaded again as normal danmaku entities. Called right
+	 * before the chunk is saved. The danmaku are removed from the engine once
+	 * the chunk is unloaded.
+	 */
+	public void writeChunkDanmaku(int chunkX, int chunkZ, NBTTagList entities) {
+		if(size == 0 || !ConfigHandler.danmaku.saveDanmaku) return;
+
+		long time = world.getTotalWorldTime();
+		if(time != chunkIndexTick) {
+			chunkIndex.clear();
+			for(int i = 0; i < size; i++) {
+				if(!ephemeral[i]) {
+					chunkIndex.computeIfAbsent(chunks[i], k -> new ArrayList<>()).add(handles[i]);
+				}
+			}
+			chunkIndexTick = time;
+		}
+
+		List<Integer> chunkHandles = chunkIndex.get(ChunkPos.asLong(chunkX, chunkZ));
+		if(chunkHandles != null) {
+			for(int handle : chunkHandles) {
+				int i = indexOf(handle);
+				if(i != -1) {
+					NBTTagCompound tag = new NBTTagCompound();
+					if(createEntity(i).writeToNBTOptional(tag)) {
+						entities.appendTag(tag);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes a simulated danmaku without any bonus.
+	 */
+	public void remove(int handle) {
+		int i = indexOf(handle);
+		if(i != -1) {
+			removeAt(i);
+		}
+	}
+
+	/**
+	 * Removes the simulated danmaku in a box with a user that passes the filter.
+	 * @param dropBonus If the danmaku should leave behind a bonus.
+	 * @return How many danmaku were removed.
+	 */
+	public int removeInBox(AxisAlignedBB box, Predicate<EntityLivingBase> userFilter, boolean dropBonus) {
+		int count = 0;
+		int i = 0;
+		while(i < size) {
+			EntityLivingBase user = users[i];
+			if(user != null && userFilter.test(user) && boundingBox(i).intersectsWith(box)) {
+				if(dropBonus) {
+					DanmakuHelper.spawnFinishBonus(world, user, new Vector3(posX[i], posY[i], posZ[i]), shots[i]);
+				}
+				//The last danmaku is moved into this place, so we don't advance
+				removeAt(i);
+				count++;
+			}
+			else {
+				i++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Adds the freeze groups of all the simulated danmaku to a set.
+	 */
+	public void collectFreezeGroups(Set<FreezeGroup> groups) {
+		for(int i = 0; i < size; i++) {
+			if(freezeGroups[i] != null) {
+				groups.add(freezeGroups[i]);
+			}
+		}
+	}
+
+	public boolean isAlive(int handle) {
+		return indexOf(handle) != -1;
+	}
+
+	/**
+	 * Gets the amount of danmaku currently simulated.
+	 */
+	public int getCount() {
+		return size;
+	}
+
+	/**
+	 * Gets the amount of danmaku a user has simulated. Always 0 on the client.
+	 */
+	public int getUserCount(EntityLivingBase user) {
+		return userCounts.getOrDefault(user, 0);
+	}
+
+	/**
+	 * Gets the amount of danmaku simulated in a chunk. Always 0 on the client.
+	 */
+	public int getChunkCount(int chunkX, int chunkZ) {
+		return chunkCounts.getOrDefault(ChunkPos.asLong(chunkX, chunkZ), 0);
+	}
+
+	/**
+	 * Adds all the simulated danmaku to a list of danmaku the {@link DanmakuBudget} can remove.
+	 */
+	void collectEvictionCandidates(List<DanmakuBudget.Candidate> candidates) {
+		for(int i = 0; i < size; i++) {
+			candidates.add(new DanmakuBudget.Candidate(null, handles[i], users[i], chunks[i], ticksExisted[i], posX[i], posY[i], posZ[i]));
+		}
+	}
+
+	private int indexOf(int handle) {
+		return handle >= 0 && handle < indexOfHandle.length ? indexOfHandle[handle] : -1;
+	}
+
+	private int add(int handle) {
+		if(size == handles.length) {
+			grow(size * 2);
+		}
+
+		if(handle >= indexOfHandle.length) {
+			int oldLength = indexOfHandle.length;
+			indexOfHandle = Arrays.copyOf(indexOfHandle, Math.max(oldLength * 2, handle + 1));
+			Arrays.fill(indexOfHandle, oldLength, indexOfHandle.length, -1);
+		}
+
+		int i = size++;
+		handles[i] = handle;
+		indexOfHandle[handle] = i;
+		return i;
+	}
+
+	private void removeAt(int i) {
+		int handle = handles[i];
+		indexOfHandle[handle] = -1;
+
+		if(!world.isRemote) {
+			removedHandles = ensureCapacity(removedHandles, removedCount + 1);
+			removedHandles[removedCount++] = handle;
+
+			decrement(chunkCounts, chunks[i]);
+			if(users[i] != null) {
+				decrement(userCounts, users[i]);
+			}
+		}
+
+		int last = --size;
+		if(i != last) {
+			move(last, i);
+			indexOfHandle[handles[i]] = i;
+		}
+
+		shots[last] = null;
+		users[last] = null;
+		sources[last] = null;
+		freezeGroups[last] = null;
+	}
+
+	private void move(int from, int to) {
+		handles[to] = handles[from];
+		shots[to] = shots[from];
+		users[to] = users[from];
+		sources[to] = sources[from];
+		freezeGroups[to] = freezeGroups[from];
+		ephemeral[to] = ephemeral[from];
+		chunks[to] = chunks[from];
+
+		posX[to] = posX[from];
+		posY[to] = posY[from];
+		posZ[to] = posZ[from];
+		prevPosX[to] = prevPosX[from];
+		prevPosY[to] = prevPosY[from];
+		prevPosZ[to] = prevPosZ[from];
+		motionX[to] = motionX[from];
+		motionY[to] = motionY[from];
+		motionZ[to] = motionZ[from];
+		angleX[to] = angleX[from];
+		angleY[to] = angleY[from];
+		angleZ[to] = angleZ[from];
+
+		yaw[to] = yaw[from];
+		pitch[to] = pitch[from];
+		prevYaw[to] = prevYaw[from];
+		prevPitch[to] = prevPitch[from];
+		roll[to] = roll[from];
+
+		ticksExisted[to] = ticksExisted[from];
+		delay[to] = delay[from];
+
+		speedOriginal[to] = speedOriginal[from];
+		lowerSpeedLimit[to] = lowerSpeedLimit[from];
+		upperSpeedLimit[to] = upperSpeedLimit[from];
+		speedAcceleration[to] = speedAcceleration[from];
+		gravityX[to] = gravityX[from];
+		gravityY[to] = gravityY[from];
+		gravityZ[to] = gravityZ[from];
+
+		rotationEnabled[to] = rotationEnabled[from];
+		rotationX[to] = rotationX[from];
+		rotationY[to] = rotationY[from];
+		rotationZ[to] = rotationZ[from];
+		rotationW[to] = rotationW[from];
+		rotationEnd[to] = rotationEnd[from];
+
+		nextMotionX[to] = nextMotionX[from];
+		nextMotionY[to] = nextMotionY[from];
+		nextMotionZ[to] = nextMotionZ[from];
+		nextAngleX[to] = nextAngleX[from];
+		nextAngleY[to] = nextAngleY[from];
+		nextAngleZ[to] = nextAngleZ[from];
+		nextYaw[to] = nextYaw[from];
+		nextPitch[to] = nextPitch[from];
+		nextPrevYaw[to] = nextPrevYaw[from];
+		nextPrevPitch[to] = nextPrevPitch[from];
+	}
+
+	private void grow(int capacity) {
+		handles = Arrays.copyOf(handles, capacity);
+		shots = Arrays.copyOf(shots, capacity);
+		users = Arrays.copyOf(users, capacity);
+		sources = Arrays.copyOf(sources, capacity);
+		freezeGroups = Arrays.copyOf(freezeGroups, capacity);
+		ephemeral = Arrays.copyOf(ephemeral, capacity);
+		chunks = Arrays.copyOf(chunks, capacity);
+
+		posX = Arrays.copyOf(posX, capacity);
+		posY = Arrays.copyOf(posY, capacity);
+		posZ = Arrays.copyOf(posZ, capacity);
+		prevPosX = Arrays.copyOf(prevPosX, capacity);
+		prevPosY = Arrays.copyOf(prevPosY, capacity);
+		prevPosZ = Arrays.copyOf(prevPosZ, capacity);
+		motionX = Arrays.copyOf(motionX, capacity);
+		motionY = Arrays.copyOf(motionY, capacity);
+		motionZ = Arrays.copyOf(motionZ, capacity);
+		angleX = Arrays.copyOf(angleX, capacity);
+		angleY = Arrays.copyOf(angleY, capacity);
+		angleZ = Arrays.copyOf(angleZ, capacity);
+
+		yaw = Arrays.copyOf(yaw, capacity);
+		pitch = Arrays.copyOf(pitch, capacity);
+		prevYaw = Arrays.copyOf(prevYaw, capacity);
+		prevPitch = Arrays.copyOf(prevPitch, capacity);
+		roll = Arrays.copyOf(roll, capacity);
+
+		ticksExisted = Arrays.copyOf(ticksExisted, capacity);
+		delay = Arrays.copyOf(delay, capacity);
+
+		speedOriginal = Arrays.copyOf(speedOriginal, capacity);
+		lowerSpeedLimit = Arrays.copyOf(lowerSpeedLimit, capacity);
+		upperSpeedLimit = Arrays.copyOf(upperSpeedLimit, capacity);
+		speedAcceleration = Arrays.copyOf(speedAcceleration, capacity);
+		gravityX = Arrays.copyOf(gravityX, capacity);
+		gravityY = Arrays.copyOf(gravityY, capacity);
+		gravityZ = Arrays.copyOf(gravityZ, capacity);
+
+		rotationEnabled = Arrays.copyOf(rotationEnabled, capacity);
+		rotationX = Arrays.copyOf(rotationX, capacity);
+		rotationY = Arrays.copyOf(rotationY, capacity);
+		rotationZ = Arrays.copyOf(rotationZ, capacity);
+		rotationW = Arrays.copyOf(rotationW, capacity);
+		rotationEnd = Arrays.copyOf(rotationEnd, capacity);
+
+		nextMotionX = Arrays.copyOf(nextMotionX, capacity);
+		nextMotionY = Arrays.copyOf(nextMotionY, capacity);
+		nextMotionZ = Arrays.copyOf(nextMotionZ, capacity);
+		nextAngleX = Arrays.copyOf(nextAngleX, capacity);
+		nextAngleY = Arrays.copyOf(nextAngleY, capacity);
+		nextAngleZ = Arrays.copyOf(nextAngleZ, capacity);
+		nextYaw = Arrays.copyOf(nextYaw, capacity);
+		nextPitch = Arrays.copyOf(nextPitch, capacity);
+		nextPrevYaw = Arrays.copyOf(nextPrevYaw, capacity);
+		nextPrevPitch = Arrays.copyOf(nextPrevPitch, capacity);
+	}
+
+	private long chunkKey(int i) {
+		return ChunkPos.asLong((int)Math.floor(posX[i]) >> 4, (int)Math.floor(posZ[i]) >> 4);
+	}
+
+	private static <K> void decrement(Map<K, Integer> counts, K key) {
+		counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+	}
+
+	private static int[] ensureCapacity(int[] array, int capacity) {
+		return capacity > array.length ? Arrays.copyOf(array, Math.max(array.length * 2, capacity)) : array;
+	}
+
+	/**
+	 * Tells the clients about the danmaku that were spawned and removed this tick.
+	 * Removals are sent before spawns, so that a reused handle is never confused
+	 * with the old danmaku. Each player gets one packet with the spawned danmaku
+	 * close to them, where danmaku that share everything but their position and
+	 * direction are sent as a group.
+	 *
+	 * Like the {@link net.minecraft.entity.EntityTracker}, the engine remembers
+	 * which danmaku each player has been sent. Every {@link #RESYNC_INTERVAL}
+	 * ticks all the danmaku are looked at again, so that players that join, or
+	 * come within range later also get the danmaku that were spawned earlier.
+	 */
+	private void syncToClients() {
+		if(removedCount > 0) {
+			PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+			buf.writeByte(ACTION_REMOVE);
+			buf.writeInt(removedCount);
+			for(int j = 0; j < removedCount; j++) {
+				buf.writeInt(removedHandles[j]);
+			}
+			DanmakuCorePacketHandler.INSTANCE.sendToDimension(new SimulatedDanmakuPacket.Message(buf), world.provider.getDimension());
+
+			for(BitSet sent : sentHandles.values()) {
+				for(int j = 0; j < removedCount; j++) {
+					sent.clear(removedHandles[j]);
+				}
+			}
+
+			freeHandles = ensureCapacity(freeHandles, freeHandleCount + removedCount);
+			System.arraycopy(removedHandles, 0, freeHandles, freeHandleCount, removedCount);
+			freeHandleCount += removedCount;
+			removedCount = 0;
+		}
+
+		//Players that have left the world are sent everything again if they come back
+		sentHandles.keySet().retainAll(world.playerEntities);
+
+		boolean resync = ++ticksSinceResync >= RESYNC_INTERVAL;
+		if(resync) {
+			ticksSinceResync = 0;
+		}
+
+		if(spawnedCount > 0 || resync) {
+			for(EntityPlayer player : world.playerEntities) {
+				if(player instanceof EntityPlayerMP) {
+					BitSet sent = sentHandles.computeIfAbsent((EntityPlayerMP)player, p -> new BitSet());
+					SpawnPacket packet = new SpawnPacket();
+
+					if(resync) {
+						for(int i = 0; i < size; i++) {
+							trySend(i, player, sent, packet);
+						}
+					}
+					else {
+						for(int j = 0; j < spawnedCount; j++) {
+							int i = indexOf(spawnedHandles[j]);
+							if(i != -1) {
+								trySend(i, player, sent, packet);
+							}
+						}
+					}
+
+					packet.send((EntityPlayerMP)player);
+				}
+			}
+		}
+
+		spawnedCount = 0;
+	}
+
+	private void trySend(int i, EntityPlayer player, BitSet sent, SpawnPacket packet) {
+		if(!sent.get(handles[i])) {
+			double dx = posX[i] - player.posX;
+			double dz = posZ[i] - player.posZ;
+			if(dx * dx + dz * dz < SYNC_RANGE_SQ) {
+				sent.set(handles[i]);
+				packet.add(i);
+			}
+		}
+	}
+
+	/**
+	 * A spawn packet for a single player, written as danmaku are added to it.
+	 */
+	private class SpawnPacket {
+
+		private PacketBuffer buf;
+		private int groupCountIndex;
+		private int groupCount = 0;
+		private int countIndex;
+		private int count = 0;
+		private int first = -1;
+
+		private void add(int i) {
+			if(buf == null) {
+				buf = new PacketBuffer(Unpooled.buffer());
+				buf.writeByte(ACTION_SPAWN);
+				groupCountIndex = buf.writerIndex();
+				buf.writeInt(0);
+			}
+
+			if(first == -1 || !isSameGroup(first, i)) {
+				if(first != -1) {
+					buf.setInt(countIndex, count);
+				}
+
+				first = i;
+				count = 0;
+				groupCount++;
+				writeGroupSpawnData(i, buf);
+				countIndex = buf.writerIndex();
+				buf.writeInt(0);
+			}
+
+			writeSpawnData(i, first, buf);
+			count++;
+		}
+
+		private void send(EntityPlayerMP player) {
+			if(buf != null) {
+				buf.setInt(countIndex, count);
+				buf.setInt(groupCountIndex, groupCount);
+				DanmakuCorePacketHandler.INSTANCE.sendTo(new SimulatedDanmakuPacket.Message(buf), player);
+			}
+		}
+	}
+
+	/**
+	 * If two danmaku only differ in where they are and where they are going,
+	 * in which case the rest is only sent once for both of them. Danmaku
+	 * spawned by the same shape are usually next to each other in the
+	 * spawned list.
+	 */
+	private boolean isSameGroup(int i, int j) {
+		return shots[i].equals(shots[j]) && roll[i] == roll[j] && ticksExisted[i] == ticksExisted[j] && delay[i] == delay[j]
+				&& speedOriginal[i] == speedOriginal[j] && lowerSpeedLimit[i] == lowerSpeedLimit[j]
+				&& upperSpeedLimit[i] == upperSpeedLimit[j] && speedAcceleration[i] == speedAcceleration[j]
+				&& gravityX[i] == gravityX[j] && gravityY[i] == gravityY[j] && gravityZ[i] == gravityZ[j]
+				&& rotationEnabled[i] == rotationEnabled[j] && (!rotationEnabled[i] || rotationX[i] == rotationX[j]
+				&& rotationY[i] == rotationY[j] && rotationZ[i] == rotationZ[j] && rotationW[i] == rotationW[j]
+				&& rotationEnd[i] == rotationEnd[j]) && freezeGroups[i] == freezeGroups[j];
+	}
+
+	//The data shared by a group of danmaku. The position of the first is used as the origin of the group
+	private void writeGroupSpawnData(int i, PacketBuffer buf) {
+		shots[i].serializeByteBuf(buf);
+
+		buf.writeDouble(posX[i]);
+		buf.writeDouble(posY[i]);
+		buf.writeDouble(posZ[i]);
+		buf.writeFloat(roll[i]);
+
+		buf.writeInt(ticksExisted[i]);
+		buf.writeInt(delay[i]);
+
+		buf.writeDouble(speedOriginal[i]);
+		buf.writeDouble(lowerSpeedLimit[i]);
+		buf.writeDouble(upperSpeedLimit[i]);
+		buf.writeDouble(speedAcceleration[i]);
+		buf.writeDouble(gravityX[i]);
+		buf.writeDouble(gravityY[i]);
+		buf.writeDouble(gravityZ[i]);
+
+		buf.writeBoolean(rotationEnabled[i]);
+		if(rotationEnabled[i]) {
+			buf.writeDouble(rotationX[i]);
+			buf.writeDouble(rotationY[i]);
+			buf.writeDouble(rotationZ[i]);
+			buf.writeDouble(rotationW[i]);
+			buf.writeInt(rotationEnd[i]);
+		}
+
+		FreezeGroup freezeGroup = freezeGroups[i];
+		buf.writeInt(freezeGroup == null ? -1 : freezeGroup.getId());
+		buf.writeBoolean(freezeGroup != null && freezeGroup.isFrozen());
+	}
+
+	//The data for a single danmaku in a group. The position is sent as an offset from the first danmaku in the group
+	private void writeSpawnData(int i, int first, PacketBuffer buf) {
+		buf.writeInt(handles[i]);
+
+		buf.writeFloat((float)(posX[i] - posX[first]));
+		buf.writeFloat((float)(posY[i] - posY[first]));
+		buf.writeFloat((float)(posZ[i] - posZ[first]));
+		buf.writeFloat((float)motionX[i]);
+		buf.writeFloat((float)motionY[i]);
+		buf.writeFloat((float)motionZ[i]);
+		buf.writeFloat((float)angleX[i]);
+		buf.writeFloat((float)angleY[i]);
+		buf.writeFloat((float)angleZ[i]);
+		buf.writeFloat(yaw[i]);
+		buf.writeFloat(pitch[i]);
+	}
+
+	private void readGroupSpawnData(PacketBuffer buf) {
+		ShotData shot = new ShotData(buf);
+
+		double originX = buf.readDouble();
+		double originY = buf.readDouble();
+		double originZ = buf.readDouble();
+		float groupRoll = buf.readFloat();
+
+		int groupTicksExisted = buf.readInt();
+		int groupDelay = buf.readInt();
+
+		double groupSpeedOriginal = buf.readDouble();
+		double groupLowerSpeedLimit = buf.readDouble();
+		double groupUpperSpeedLimit = buf.readDouble();
+		double groupSpeedAcceleration = buf.readDouble();
+		double groupGravityX = buf.readDouble();
+		double groupGravityY = buf.readDouble();
+		double groupGravityZ = buf.readDouble();
+
+		boolean groupRotationEnabled = buf.readBoolean();
+		double groupRotationX = 0D;
+		double groupRotationY = 0D;
+		double groupRotationZ = 0D;
+		double groupRotationW = 1D;
+		int groupRotationEnd = 0;
+		if(groupRotationEnabled) {
+			groupRotationX = buf.readDouble();
+			groupRotationY = buf.readDouble();
+			groupRotationZ = buf.readDouble();
+			groupRotationW = buf.readDouble();
+			groupRotationEnd = buf.readInt();
+		}
+
+		int groupId = buf.readInt();
+		boolean groupFrozen = buf.readBoolean();
+		FreezeGroup freezeGroup = null;
+		if(groupId != -1) {
+			freezeGroup = DanmakuWorld.get(world).getFreezeGroup(groupId);
+			freezeGroup.setFrozen(groupFrozen);
+		}
+
+		int count = buf.readInt();
+		for(int j = 0; j < count; j++) {
+			int handle = buf.readInt();
+			remove(handle);
+			int i = add(handle);
+
+			shots[i] = shot;
+
+			posX[i] = prevPosX[i] = originX + buf.readFloat();
+			posY[i] = prevPosY[i] = originY + buf.readFloat();
+			posZ[i] = prevPosZ[i] = originZ + buf.readFloat();
+			motionX[i] = buf.readFloat();
+			motionY[i] = buf.readFloat();
+			motionZ[i] = buf.readFloat();
+			angleX[i] = buf.readFloat();
+			angleY[i] = buf.readFloat();
+			angleZ[i] = buf.readFloat();
+			yaw[i] = prevYaw[i] = buf.readFloat();
+			pitch[i] = prevPitch[i] = buf.readFloat();
+			roll[i] = groupRoll;
+
+			ticksExisted[i] = groupTicksExisted;
+			delay[i] = groupDelay;
+
+			speedOriginal[i] = groupSpeedOriginal;
+			lowerSpeedLimit[i] = groupLowerSpeedLimit;
+			upperSpeedLimit[i] = groupUpperSpeedLimit;
+			speedAcceleration[i] = groupSpeedAcceleration;
+			gravityX[i] = groupGravityX;
+			gravityY[i] = groupGravityY;
+			gravityZ[i] = groupGravityZ;
+
+			rotationEnabled[i] = groupRotationEnabled;
+			rotationX[i] = groupRotationX;
+			rotationY[i] = groupRotationY;
+			rotationZ[i] = groupRotationZ;
+			rotationW[i] = groupRotationW;
+			rotationEnd[i] = groupRotationEnd;
+
+			freezeGroups[i] = freezeGroup;
+		}
+	}
+
+	/**
+	 * Handles the data sent from the server engine. Only used on the client.
+	 */
+	public void handlePacket(PacketBuffer buf) {
+		byte action = buf.readByte();
+		if(action == ACTION_SPAWN) {
+			int groupCount = buf.readInt();
+			for(int j = 0; j < groupCount; j++) {
+				readGroupSpawnData(buf);
+			}
+		}
+		else if(action == ACTION_REMOVE) {
+			int count = buf.readInt();
+			for(int j = 0; j < count; j++) {
+				remove(buf.readInt());
+			}
+		}
+	}
+
+	//Accessors used for rendering
+
+	public ShotData getShotData(int index) {
+		return shots[index];
+	}
+
+	public double getRenderX(int index, float partialTicks) {
+		return prevPosX[index] + (posX[index] - prevPosX[index]) * partialTicks;
+	}
+
+	public double getRenderY(int index, float partialTicks) {
+		return prevPosY[index] + (posY[index] - prevPosY[index]) * partialTicks;
+	}
+
+	public double getRenderZ(int index, float partialTicks) {
+		return prevPosZ[index] + (posZ[index] - prevPosZ[index]) * partialTicks;
+	}
+
+	public float getRenderYaw(int index, float partialTicks) {
+		return prevYaw[index] + (yaw[index] - prevYaw[index]) * partialTicks;
+	}
+
+	public float getRenderPitch(int index, float partialTicks) {
+		return prevPitch[index] + (pitch[index] - prevPitch[index]) * partialTicks;
+	}
+
+	public float getRoll(int index) {
+		return roll[index];
+	}
+
+	public int getTicksExisted(int index) {
+		return ticksExisted[index];
+	}
+}
@@ -0,0 +1,322 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.helper.DanmakuHelper;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
+
+/**
+ * Keeps the danmaku entities of a world sorted by the chunk section they
+ * are in, and by who created them. Used to find the danmaku in an area
+ * without asking the world for all the entities there.
+ *
+ * The danmaku are moved to their new section each full tick, so the
+ * sections they are in can be a few ticks out of date for danmaku that
+ * are far away from all players. Queries use the current bounding box
+ * of the danmaku for the final test.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DanmakuIndex {
+
+	/**
+	 * Who created a danmaku.
+	 */
+	public enum Category {
+		/**
+		 * Danmaku with a player as the user.
+		 */
+		PLAYER,
+		/**
+		 * Danmaku with a user that isn't a player.
+		 */
+		ENEMY,
+		/**
+		 * Danmaku without a user.
+		 */
+		OTHER;
+
+		public static Category of(@Nullable EntityLivingBase user) {
+			if(user == null) return OTHER;
+			return user instanceof EntityPlayer ? PLAYER : ENEMY;
+		}
+	}
+
+	private static final int SECTION_SHIFT = 4;
+	private static final Category[] CATEGORIES = Category.values();
+
+	private final World world;
+	private final Map<Long, Section> sections = new HashMap<>();
+	private final Map<EntityDanmaku, Entry> entries = new HashMap<>();
+
+	//The clears done this tick, so that the same clear isn't done twice
+	private final Set<ClearKey> clears = new HashSet<>();
+	private long clearsTick = -1;
+
+	public DanmakuIndex(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * How many danmaku entities are in the index.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Adds a danmaku to the index. Does nothing if it's already there.
+	 */
+	public void add(EntityDanmaku danmaku) {
+		if(entries.containsKey(danmaku)) return;
+
+		Entry entry = new Entry(Category.of(danmaku.getUser().orElse(null)), sectionKey(danmaku));
+		entries.put(danmaku, entry);
+		sections.computeIfAbsent(entry.section, k -> new Section()).add(danmaku, entry.category);
+	}
+
+	/**
+	 * Removes a danmaku from the index. Does nothing if it isn't there.
+	 */
+	public void remove(EntityDanmaku danmaku) {
+		Entry entry = entries.remove(danmaku);
+		if(entry != null) {
+			removeFromSection(danmaku, entry);
+		}
+	}
+
+	/**
+	 * Moves a danmaku to the section it's currently in.
+	 */
+	public void move(EntityDanmaku danmaku) {
+		Entry entry = entries.get(danmaku);
+		if(entry != null) {
+			long section = sectionKey(danmaku);
+			if(section != entry.section) {
+				removeFromSection(danmaku, entry);
+				entry.section = section;
+				sections.computeIfAbsent(section, k -> new Section()).add(danmaku, entry.category);
+			}
+		}
+	}
+
+	/**
+	 * Moves a danmaku to another category. Used when the user of the
+	 * danmaku is loaded after the danmaku.
+	 */
+	public void setCategory(EntityDanmaku danmaku, Category category) {
+		Entry entry = entries.get(danmaku);
+		if(entry != null && entry.category != category) {
+			removeFromSection(danmaku, entry);
+			entry.category = category;
+			sections.computeIfAbsent(entry.section, k -> new Section()).add(danmaku, category);
+		}
+	}
+
+	private void removeFromSection(EntityDanmaku danmaku, Entry entry) {
+		Section section = sections.get(entry.section);
+		if(section != null && section.remove(danmaku, entry.category)) {
+			sections.remove(entry.section);
+		}
+	}
+
+	/**
+	 * Gets the danmaku entities in a box, that were created by one of the
+	 * categories passed in, and that pass the filter.
+	 */
+	public List<EntityDanmaku> query(AxisAlignedBB box, Set<Category> categories, Predicate<EntityDanmaku> filter) {
+		List<EntityDanmaku> list = new ArrayList<>();
+		if(entries.isEmpty() || categories.isEmpty()) return list;
+
+		int minX = section(box.minX);
+		int minY = section(box.minY);
+		int minZ = section(box.minZ);
+		int maxX = section(box.maxX);
+		int maxY = section(box.maxY);
+		int maxZ = section(box.maxZ);
+
+		long sectionsInBox = (long)(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+		if(sectionsInBox > sections.size()) {
+			//Less work to look at all the sections there are
+			for(Map.Entry<Long, Section> mapEntry : sections.entrySet()) {
+				long key = mapEntry.getKey();
+				int x = unpackX(key);
+				int y = unpackY(key);
+				int z = unpackZ(key);
+				if(x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+					mapEntry.getValue().collect(box, categories, filter, list);
+				}
+			}
+		}
+		else {
+			for(int x = minX; x <= maxX; x++) {
+				for(int y = minY; y <= maxY; y++) {
+					for(int z = minZ; z <= maxZ; z++) {
+						Section section = sections.get(sectionKey(x, y, z));
+						if(section != null) {
+							section.collect(box, categories, filter, list);
+						}
+					}
+				}
+			}
+		}
+
+		return list;
+	}
+
+	/**
+	 * Gets the danmaku entities in a box created by one of the categories passed in.
+	 */
+	public List<EntityDanmaku> query(AxisAlignedBB box, Set<Category> categories) {
+		return query(box, categories, danmaku -> true);
+	}
+
+	/**
+	 * Gets all the danmaku entities in a box.
+	 */
+	public List<EntityDanmaku> query(AxisAlignedBB box) {
+		return query(box, EnumSet.allOf(Category.class), danmaku -> true);
+	}
+
+	/**
+	 * Marks that a clear around an entity has been done this tick.
+	 * @param center The entity the clear is centered around.
+	 * @param mode What is removed by the clear.
+	 * @return False if the same clear has already been done this tick.
+	 */
+	public boolean markCleared(Entity center, DanmakuHelper.DanmakuRemoveMode mode) {
+		long time = world.getTotalWorldTime();
+		if(time != clearsTick) {
+			clears.clear();
+			clearsTick = time;
+		}
+
+		return clears.add(new ClearKey(center, mode));
+	}
+
+	private static int section(double coord) {
+		return (int)Math.floor(coord) >> SECTION_SHIFT;
+	}
+
+	private static long sectionKey(EntityDanmaku danmaku) {
+		return sectionKey(section(danmaku.posX), section(danmaku.posY), section(danmaku.posZ));
+	}
+
+	private static long sectionKey(int x, int y, int z) {
+		return (x & 0x1FFFFFL) | (y & 0x1FFFFFL) << 21 | (z & 0x1FFFFFL) << 42;
+	}
+
+	//Sign extends the 21 bit parts of the key
+	private static int unpackX(long key) {
+		return (int)(key << 43 >> 43);
+	}
+
+	private static int unpackY(long key) {
+		return (int)(key << 22 >> 43);
+	}
+
+	private static int unpackZ(long key) {
+		return (int)(key << 1 >> 43);
+	}
+
+	private static class Entry {
+
+		private Category category;
+		private long section;
+
+		private Entry(Category category, long section) {
+			this.category = category;
+			this.section = section;
+		}
+	}
+
+	private static class Section {
+
+		@SuppressWarnings("unchecked")
+		private final Set<EntityDanmaku>[] byCategory = new Set[CATEGORIES.length];
+		private int size = 0;
+
+		private void add(EntityDanmaku danmaku, Category category) {
+			Set<EntityDanmaku> set = byCategory[category.ordinal()];
+			if(set == null) {
+				set = new HashSet<>();
+				byCategory[category.ordinal()] = set;
+			}
+
+			if(set.add(danmaku)) {
+				size++;
+			}
+		}
+
+		/**
+		 * @return If the section is now empty.
+		 */
+		private boolean remove(EntityDanmaku danmaku, Category category) {
+			Set<EntityDanmaku> set = byCategory[category.ordinal()];
+			if(set != null && set.remove(danmaku)) {
+				size--;
+			}
+
+			return size == 0;
+		}
+
+		private void collect(AxisAlignedBB box, Set<Category> categories, Predicate<EntityDanmaku> filter, List<EntityDanmaku> list) {
+			for(Category category : categories) {
+				Set<EntityDanmaku> set = byCategory[category.ordinal()];
+				if(set != null) {
+					for(EntityDanmaku danmaku : set) {
+						if(danmaku.getEntityBoundingBox().intersectsWith(box) && filter.test(danmaku)) {
+							list.add(danmaku);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static class ClearKey {
+
+		private final Entity center;
+		private final DanmakuHelper.DanmakuRemoveMode mode;
+
+		private ClearKey(Entity center, DanmakuHelper.DanmakuRemoveMode mode) {
+			this.center = center;
+			this.mode = mode;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+
+			ClearKey clearKey = (ClearKey)o;
+			return center == clearKey.center && mode == clearKey.mode;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(center) + mode.hashCode();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.ReflectionHelper;
+
+/**
+ * Keeps dead danmaku entities around so that they can be used again,
+ * together with their subentity, instead of creating new ones.
+ *
+ * A dead danmaku can still be in the world's entity list until the next
+ * time the world updates it's entities, so released danmaku wait two
+ * ticks before they can be used again.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DanmakuPool {
+
+	private static final Field NEXT_ENTITY_ID = ReflectionHelper.findField(Entity.class, "nextEntityID", "field_70152_a");
+
+	private final World world;
+
+	private final ArrayDeque<EntityDanmaku> available = new ArrayDeque<>();
+	private ArrayDeque<EntityDanmaku> releasedThisTick = new ArrayDeque<>();
+	private ArrayDeque<EntityDanmaku> releasedLastTick = new ArrayDeque<>();
+
+	public DanmakuPool(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Gets a danmaku entity for a template. Uses a dead danmaku if there is one
+	 * available, or creates a new one if not.
+	 */
+	public EntityDanmaku obtain(DanmakuTemplate template) {
+		EntityDanmaku danmaku = available.poll();
+		if(danmaku == null) {
+			return new EntityDanmaku(world, template.user, template.source, template.shot, template.pos, template.angle, template.roll,
+					template.movement, template.rotation);
+		}
+
+		danmaku.recycle(template.user, template.source, template.shot, template.pos, template.angle, template.roll, template.movement,
+				template.rotation);
+		return danmaku;
+	}
+
+	/**
+	 * Gives a dead danmaku to the pool. Does nothing if the pool is full.
+	 */
+	public void release(EntityDanmaku danmaku) {
+		if(available.size() + releasedThisTick.size() + releasedLastTick.size() < ConfigHandler.danmaku.danmakuPoolSize) {
+			releasedThisTick.add(danmaku);
+		}
+	}
+
+	/**
+	 * Takes back a danmaku that was just released, so that it's never used
+	 * again. Used for danmaku that can't be removed from their chunk.
+	 */
+	public void discard(EntityDanmaku danmaku) {
+		releasedThisTick.remove(danmaku);
+	}
+
+	/**
+	 * Makes the danmaku released two ticks ago available. Called at the start of each tick.
+	 */
+	void tick() {
+		available.addAll(releasedLastTick);
+		releasedLastTick.clear();
+
+		ArrayDeque<EntityDanmaku> temp = releasedLastTick;
+		releasedLastTick = releasedThisTick;
+		releasedThisTick = temp;
+	}
+
+	/**
+	 * Gets a new entity id the same way the {@link Entity} constructor does.
+	 */
+	public static int nextEntityId() {
+		try {
+			int id = NEXT_ENTITY_ID.getInt(null);
+			NEXT_ENTITY_ID.setInt(null, id + 1);
+			return id;
+		}
+		catch(IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
+import net.katsstuff.danmakucore.shape.IShapeSink;
+import net.minecraft.world.World;
+
+/**
+ * Collects the danmaku created during a tick, and spawns all of them in one
+ * go when the world ticks. Danmaku that can be simulated are handed to the
+ * {@link DanmakuEngine} together, which then sends them to each player in a
+ * single packet, with the data they share only written once. Use this for
+ * shapes and spellcards that don't need the spawned entities.
+ *
+ * Danmaku added while the world ticks are spawned right after the shapes have
+ * ticked, and before the formations tick, so that the formations count the
+ * members spawned here. Danmaku added at other times, for example when
+ * the entities are updated, are spawned at the start of the next tick.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DanmakuSpawnBatch implements IShapeSink {
+
+	private final World world;
+	private List<DanmakuTemplate> pending = new ArrayList<>();
+	private List<DanmakuTemplate> committing = new ArrayList<>();
+
+	public DanmakuSpawnBatch(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * How many danmaku are waiting to be spawned.
+	 */
+	public int size() {
+		return pending.size();
+	}
+
+	/**
+	 * Adds a danmaku to be spawned when the batch is committed. The template
+	 * is copied, so it can be changed after this returns. On the client,
+	 * the danmaku is spawned right away instead.
+	 */
+	public void add(DanmakuTemplate template) {
+		if(world.isRemote) {
+			template.spawn();
+		}
+		else {
+			pending.add(template.copy());
+		}
+	}
+
+	@Override
+	public void accept(DanmakuTemplate template) {
+		add(template);
+	}
+
+	/**
+	 * Spawns all the danmaku that have been added since the last commit.
+	 */
+	void commit() {
+		if(pending.isEmpty()) return;
+
+		//Swap the lists so that danmaku added while spawning wait for the next commit
+		List<DanmakuTemplate> toSpawn = pending;
+		pending = committing;
+		committing = toSpawn;
+
+		for(DanmakuTemplate template : toSpawn) {
+			template.spawn();
+		}
+		toSpawn.clear();
+	}
+}
@@ -0,0 +1,295 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import net.katsstuff.danmakucore.data.Quat;
+import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuFormation;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.entity.danmaku.FreezeGroup;
+import net.katsstuff.danmakucore.shape.ShapeScheduler;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
+
+/**
+ * Everything DanmakuCore keeps track of for a single world.
+ */
+public class DanmakuWorld {
+
+	private static final Map<World, DanmakuWorld> WORLDS = new ConcurrentHashMap<>();
+
+	private final World world;
+	private final DanmakuEngine engine;
+	private final EntityGrid entityGrid;
+	private final BlockCache blockCache;
+	private final DanmakuIndex index;
+	private final DanmakuBudget budget;
+	private final DanmakuPool pool;
+	private final FallingDataMerger fallingDataMerger;
+	//Only used on the server
+	private final EntityIndex entityIndex;
+	private final ShapeScheduler shapes;
+	private final DanmakuSpawnBatch spawnBatch;
+	//Only used on the server. When danmaku stop being delayed, and when they might reach their end time
+	private final TimingWheel<EntityDanmaku> delayTimers;
+	private final TimingWheel<EntityDanmaku> expiryTimers;
+	//Only used on the client. The server doesn't need to keep track of the groups. Unused groups are pruned now and then
+	private final Map<Integer, FreezeGroup> freezeGroups = new HashMap<>();
+	//The server ticks the formations, while the client only needs to find them
+	private final List<DanmakuFormation> activeFormations = new ArrayList<>();
+	private final Map<Integer, DanmakuFormation> formations = new HashMap<>();
+
+	private DanmakuWorld(World world) {
+		this.world = world;
+		engine = new DanmakuEngine(world);
+		entityGrid = new EntityGrid(world);
+		blockCache = new BlockCache(world);
+		index = new DanmakuIndex(world);
+		budget = new DanmakuBudget(world, index);
+		pool = new DanmakuPool(world);
+		fallingDataMerger = new FallingDataMerger();
+		entityIndex = new EntityIndex();
+		shapes = new ShapeScheduler();
+		spawnBatch = new DanmakuSpawnBatch(world);
+		delayTimers = new TimingWheel<>(world.getTotalWorldTime());
+		expiryTimers = new TimingWheel<>(world.getTotalWorldTime());
+	}
+
+	public static DanmakuWorld get(World world) {
+		return WORLDS.computeIfAbsent(world, DanmakuWorld::new);
+	}
+
+	static void remove(World world) {
+		WORLDS.remove(world);
+	}
+
+	void tick() {
+		blockCache.clear();
+		pool.tick();
+		fallingDataMerger.tick();
+		entityIndex.tick();
+
+		finishDeadUsers();
+
+		long time = world.getTotalWorldTime();
+		delayTimers.advance(time, EntityDanmaku::onDelayTimer);
+		expiryTimers.advance(time, EntityDanmaku::onExpiryTimer);
+
+		shapes.tick();
+		//Before the formations, so that formations see the members spawned through the batch
+		spawnBatch.commit();
+		activeFormations.removeIf(formation -> !formation.tick());
+		engine.tick();
+		budget.tick();
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public DanmakuEngine getEngine() {
+		return engine;
+	}
+
+	public EntityGrid getEntityGrid() {
+		return entityGrid;
+	}
+
+	public BlockCache getBlockCache() {
+		return blockCache;
+	}
+
+	public DanmakuBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * The danmaku entities in this world, sorted by where they are and who created them.
+	 */
+	public DanmakuIndex getIndex() {
+		return index;
+	}
+
+	public DanmakuPool getPool() {
+		return pool;
+	}
+
+	public FallingDataMerger getFallingDataMerger() {
+		return fallingDataMerger;
+	}
+
+	/**
+	 * The entities in this world by their UUID. Only used on the server.
+	 */
+	public EntityIndex getEntityIndex() {
+		return entityIndex;
+	}
+
+	/**
+	 * The shapes being drawn in this world.
+	 */
+	public ShapeScheduler getShapes() {
+		return shapes;
+	}
+
+	/**
+	 * The danmaku waiting to be spawned this tick.
+	 */
+	public DanmakuSpawnBatch getSpawnBatch() {
+		return spawnBatch;
+	}
+
+	/**
+	 * The danmaku entities waiting for their delay to end.
+	 */
+	public TimingWheel<EntityDanmaku> getDelayTimers() {
+		return delayTimers;
+	}
+
+	/**
+	 * The danmaku entities waiting for their end time.
+	 */
+	public TimingWheel<EntityDanmaku> getExpiryTimers() {
+		return expiryTimers;
+	}
+
+	/**
+	 * Gets the {@link FreezeGroup} with an id, or creates it if this is the first
+	 * time it's seen. Only used on the client.
+	 */
+	public FreezeGroup getFreezeGroup(int id) {
+		return freezeGroups.computeIfAbsent(id, groupId -> new FreezeGroup(world, groupId));
+	}
+
+	/**
+	 * Forgets the freeze groups that no danmaku are in anymore. A group that
+	 * is needed again is created again, as the danmaku are sent together with
+	 * the frozen state of their group. Only used on the client.
+	 */
+	public void pruneFreezeGroups() {
+		if(freezeGroups.isEmpty()) return;
+
+		Set<FreezeGroup> used = Collections.newSetFromMap(new IdentityHashMap<>());
+		for(Entity entity : world.loadedEntityList) {
+			if(entity instanceof EntityDanmaku) {
+				FreezeGroup group = ((EntityDanmaku)entity).getFreezeGroup();
+				if(group != null) {
+					used.add(group);
+				}
+			}
+		}
+		engine.collectFreezeGroups(used);
+
+		freezeGroups.values().retainAll(used);
+	}
+
+	/**
+	 * Turns all the danmaku entities of a user into bonus drops in one go.
+	 * Called when the user dies or is removed from the world.
+	 */
+	public void finishUserDanmaku(EntityLivingBase user) {
+		//Copied as the danmaku are removed from the budget when they die
+		for(EntityDanmaku danmaku : new ArrayList<>(budget.getUserDanmaku(user))) {
+			danmaku.danmakuFinishBonus();
+		}
+	}
+
+	//Catches users that were removed without dying
+	private void finishDeadUsers() {
+		List<EntityLivingBase> deadUsers = null;
+		for(EntityLivingBase user : budget.getUsers()) {
+			if(user.isDead) {
+				if(deadUsers == null) {
+					deadUsers = new ArrayList<>();
+				}
+				deadUsers.add(user);
+			}
+		}
+
+		if(deadUsers != null) {
+			deadUsers.forEach(this::finishUserDanmaku);
+		}
+	}
+
+	/**
+	 * Starts ticking a new formation. Only used on the server.
+	 */
+	public void addFormation(DanmakuFormation formation) {
+		activeFormations.add(formation);
+	}
+
+	/**
+	 * Gets the {@link DanmakuFormation} with an id, or creates it with a pose
+	 * if this is the first time it's seen. Only used on the client.
+	 */
+	public DanmakuFormation getFormation(int id, Vector3 pos, Quat orientation) {
+		return formations.computeIfAbsent(id, formationId -> new DanmakuFormation(world, formationId, pos, orientation));
+	}
+
+	/**
+	 * Forgets a formation that is no longer used. Only used on the client.
+	 */
+	public void removeFormation(int id) {
+		formations.remove(id);
+	}
+
+	/**
+	 * Same as {@link World#getEntitiesInAABBexcluding(Entity, AxisAlignedBB, com.google.common.base.Predicate)},
+	 * but only returns entities that can be collided with. Uses the
+	 * {@link EntityGrid} on the server.
+	 */
+	public List<Entity> getCollidableEntities(@Nullable Entity excluded, AxisAlignedBB box, Predicate<Entity> predicate) {
+		if(useEntityGrid()) {
+			return entityGrid.getEntitiesInAABBexcluding(excluded, box, predicate);
+		}
+		else {
+			return world.getEntitiesInAABBexcluding(excluded, box, entity -> entity.canBeCollidedWith() && predicate.test(entity));
+		}
+	}
+
+	/**
+	 * Gets the entities that can be collided with, and that intersect the box.
+	 * On the server the {@link EntityGrid} is used, in which case nothing is
+	 * allocated, and the returned list is reused by the next call.
+	 */
+	public List<Entity> getCollidableEntities(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+			@Nullable Entity excluded1, @Nullable Entity excluded2, @Nullable Entity excluded3) {
+		if(useEntityGrid()) {
+			return entityGrid.getEntitiesInBox(minX, minY, minZ, maxX, maxY, maxZ, excluded1, excluded2, excluded3);
+		}
+		else {
+			return world.getEntitiesInAABBexcluding(excluded1, new AxisAlignedBB(minX, minY, minZ, maxX, maxY, maxZ),
+					entity -> entity != excluded2 && entity != excluded3 && entity.canBeCollidedWith());
+		}
+	}
+
+	//The grid is built the first time it's needed each tick, so worlds without danmaku never build it
+	private boolean useEntityGrid() {
+		if(world.isRemote) return false;
+
+		if(!entityGrid.isBuilt()) {
+			entityGrid.build();
+		}
+		return true;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.entity.EntityFallingData;
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuFormation;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.living.LivingDeathEvent;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+public final class DanmakuWorldHandler {
+
+	@SubscribeEvent
+	public static void onTick(TickEvent.WorldTickEvent event) {
+		if(event.phase == TickEvent.Phase.START && event.side == Side.SERVER) {
+			DanmakuWorld.get(event.world).tick();
+		}
+	}
+
+	@SubscribeEvent
+	public static void onEntityJoin(EntityJoinWorldEvent event) {
+		World world = event.getWorld();
+		if(!world.isRemote) {
+			DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+			Entity entity = event.getEntity();
+			if(entity instanceof EntityDanmaku) {
+				EntityDanmaku danmaku = (EntityDanmaku)entity;
+				if(!danmakuWorld.getBudget().tryTrack(danmaku)) {
+					danmaku.setFormation(null, Vector3.Zero());
+					//A danmaku loaded with it's chunk stays in the chunk, so it needs to be dead to not be saved again
+					danmaku.setDead();
+					if(danmaku.addedToChunk) {
+						danmakuWorld.getPool().discard(danmaku);
+					}
+					event.setCanceled(true);
+					return;
+				}
+
+				DanmakuFormation formation = danmaku.getFormation();
+				if(formation != null) {
+					formation.addMember(danmaku.getFormationOffset());
+				}
+				danmaku.scheduleTimers();
+			}
+			else if(entity instanceof EntityFallingData) {
+				EntityFallingData drop = (EntityFallingData)entity;
+				FallingDataMerger merger = danmakuWorld.getFallingDataMerger();
+				//Drops loaded with their chunk are already in it, and have been merged when they spawned
+				if(entity.addedToChunk) {
+					merger.track(drop);
+				}
+				else if(merger.tryMerge(drop)) {
+					drop.setDead();
+					event.setCanceled(true);
+					return;
+				}
+			}
+
+			EntityGrid grid = danmakuWorld.getEntityGrid();
+			if(grid.isBuilt()) {
+				grid.addEntity(entity);
+			}
+			danmakuWorld.getEntityIndex().add(entity);
+			danmakuWorld.getBudget().onEntityJoin(entity);
+		}
+	}
+
+	//Lowest so that we know if the death was canceled
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public static void onLivingDeath(LivingDeathEvent event) {
+		EntityLivingBase living = event.getEntityLiving();
+		if(!living.world.isRemote) {
+			DanmakuWorld.get(living.world).finishUserDanmaku(living);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkUnload(ChunkEvent.Unload event) {
+		World world = event.getWorld();
+		if(!world.isRemote) {
+			DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+			DanmakuBudget budget = danmakuWorld.getBudget();
+			EntityIndex entityIndex = danmakuWorld.getEntityIndex();
+			for(ClassInheritanceMultiMap<Entity> entities : event.getChunk().getEntityLists()) {
+				for(Entity entity : entities) {
+					entityIndex.remove(entity);
+				}
+
+				for(EntityDanmaku danmaku : entities.getByClass(EntityDanmaku.class)) {
+					budget.untrack(danmaku);
+					//Formations are not saved, so the danmaku continues on it's own when loaded again
+					danmaku.leaveFormation();
+					danmaku.cancelTimers();
+					if(!danmaku.shouldSave()) {
+						//The chunk is about to be saved, and unloading it removes the entity from the world
+						danmaku.setDead();
+					}
+				}
+
+				for(EntityFallingData drop : entities.getByClass(EntityFallingData.class)) {
+					danmakuWorld.getFallingDataMerger().remove(drop);
+				}
+			}
+		}
+	}
+
+	//Fired after the entities of the chunk have been written, but before the data is saved
+	@SubscribeEvent
+	public static void onChunkSave(ChunkDataEvent.Save event) {
+		World world = event.getWorld();
+		if(!world.isRemote) {
+			Chunk chunk = event.getChunk();
+			NBTTagList entities = event.getData().getCompoundTag("Level").getTagList("Entities", Constants.NBT.TAG_COMPOUND);
+			DanmakuWorld.get(world).getEngine().writeChunkDanmaku(chunk.xPosition, chunk.zPosition, entities);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onBlockUpdate(BlockEvent.NeighborNotifyEvent event) {
+		World world = event.getWorld();
+		if(!world.isRemote) {
+			DanmakuWorld.get(world).getBlockCache().invalidate(event.getPos());
+		}
+	}
+
+	@SubscribeEvent
+	public static void onUnload(WorldEvent.Unload event) {
+		DanmakuWorld.remove(event.getWorld());
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
+
+/**
+ * A spatial hash of all the entities danmaku can collide with, built at
+ * most once each world tick, the first time a danmaku checks for hits. Used
+ * instead of {@link World#getEntitiesInAABBexcluding(Entity, AxisAlignedBB, com.google.common.base.Predicate)}
+ * when checking for hits.
+ *
+ * The entities are placed in the grid using where they were when it was built,
+ * expanded by {@link #MARGIN}. The final intersection test is done with the
+ * current bounding box. Entities that move further than the margin after the
+ * grid was built, for example by teleporting, can be missed for the rest of
+ * that tick. Otherwise the results are the same as the world query.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EntityGrid {
+
+	private static final int CELL_SHIFT = 3;
+	private static final double MARGIN = 2D;
+	private static final int EMPTY = -1;
+
+	private final World world;
+	private long builtTime = -1;
+
+	private Entity[] entities = new Entity[64];
+	private int entityCount = 0;
+	//Used to only return an entity once, even if it's in many cells
+	private int[] lastQuery = new int[64];
+	private int queryId = 0;
+
+	//Open addressing hash from cell to the first entry in that cell
+	private long[] cellKeys = new long[256];
+	private int[] cellHeads = new int[256];
+	private int cellCount = 0;
+
+	//Linked lists of entries in each cell
+	private int[] entryEntity = new int[256];
+	private int[] entryNext = new int[256];
+	private int entryCount = 0;
+
+	private final List<Entity> scratch = new ArrayList<>();
+
+	public EntityGrid(World world) {
+		this.world = world;
+		Arrays.fill(cellHeads, EMPTY);
+	}
+
+	/**
+	 * Rebuilds the grid from the entities currently in the world.
+	 */
+	public void build() {
+		Arrays.fill(entities, 0, entityCount, null);
+		entityCount = 0;
+		entryCount = 0;
+		cellCount = 0;
+		Arrays.fill(cellHeads, EMPTY);
+
+		for(Entity entity : world.loadedEntityList) {
+			addEntity(entity);
+		}
+
+		builtTime = world.getTotalWorldTime();
+	}
+
+	/**
+	 * If the grid is up to date for this tick. If it's not, the world should be queried instead.
+	 */
+	public boolean isBuilt() {
+		return builtTime == world.getTotalWorldTime();
+	}
+
+	/**
+	 * Adds an entity, and it's parts, to the grid.
+	 */
+	public void addEntity(Entity entity) {
+		if(entity.canBeCollidedWith()) {
+			insert(entity);
+		}
+
+		Entity[] parts = entity.getParts();
+		if(parts != null) {
+			for(Entity part : parts) {
+				if(part.canBeCollidedWith()) {
+					insert(part);
+				}
+			}
+		}
+	}
+
+	private void insert(Entity entity) {
+		if(entityCount == entities.length) {
+			entities = Arrays.copyOf(entities, entityCount * 2);
+			lastQuery = Arrays.copyOf(lastQuery, entityCount * 2);
+		}
+
+		int index = entityCount++;
+		entities[index] = entity;
+		lastQuery[index] = queryId;
+
+		AxisAlignedBB box = entity.getEntityBoundingBox();
+		int minX = cell(box.minX - MARGIN);
+		int minY = cell(box.minY - MARGIN);
+		int minZ = cell(box.minZ - MARGIN);
+		int maxX = cell(box.maxX + MARGIN);
+		int maxY = cell(box.maxY + MARGIN);
+		int maxZ = cell(box.maxZ + MARGIN);
+
+		for(int x = minX; x <= maxX; x++) {
+			for(int y = minY; y <= maxY; y++) {
+				for(int z = minZ; z <= maxZ; z++) {
+					addEntry(key(x, y, z), index);
+				}
+			}
+		}
+	}
+
+	private void addEntry(long key, int entityIndex) {
+		if((cellCount + 1) * 2 > cellKeys.length) {
+			rehash(cellKeys.length * 2);
+		}
+
+		if(entryCount == entryEntity.length) {
+			entryEntity = Arrays.copyOf(entryEntity, entryCount * 2);
+			entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+		}
+
+		int slot = findSlot(key);
+		if(cellHeads[slot] == EMPTY) {
+			cellKeys[slot] = key;
+			cellCount++;
+		}
+
+		int entry = entryCount++;
+		entryEntity[entry] = entityIndex;
+		entryNext[entry] = cellHeads[slot];
+		cellHeads[slot] = entry;
+	}
+
+	private int findSlot(long key) {
+		int mask = cellKeys.length - 1;
+		int slot = hash(key) & mask;
+		while(cellHeads[slot] != EMPTY && cellKeys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash(int newSize) {
+		long[] oldKeys = cellKeys;
+		int[] oldHeads = cellHeads;
+		cellKeys = new long[newSize];
+		cellHeads = new int[newSize];
+		Arrays.fill(cellHeads, EMPTY);
+
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldHeads[i] != EMPTY) {
+				int slot = findSlot(oldKeys[i]);
+				cellKeys[slot] = oldKeys[i];
+				cellHeads[slot] = oldHeads[i];
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link World#getEntitiesInAABBexcluding(Entity, AxisAlignedBB, com.google.common.base.Predicate)},
+	 * but only returns entities that can be collided with.
+	 */
+	public List<Entity> getEntitiesInAABBexcluding(@Nullable Entity excluded, AxisAlignedBB box, Predicate<Entity> predicate) {
+		List<Entity> list = new ArrayList<>();
+		collect(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, excluded, null, null, predicate, list);
+		return list;
+	}
+
+	/**
+	 * Gets the entities that can be collided with, and that intersect the box,
+	 * without allocating anything. The returned list is reused by the next call.
+	 */
+	public List<Entity> getEntitiesInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+			@Nullable Entity excluded1, @Nullable Entity excluded2, @Nullable Entity excluded3) {
+		scratch.clear();
+		collect(minX, minY, minZ, maxX, maxY, maxZ, excluded1, excluded2, excluded3, null, scratch);
+		return scratch;
+	}
+
+	private void collect(double boxMinX, double boxMinY, double boxMinZ, double boxMaxX, double boxMaxY, double boxMaxZ,
+			@Nullable Entity excluded1, @Nullable Entity excluded2, @Nullable Entity excluded3, @Nullable Predicate<Entity> predicate,
+			List<Entity> list) {
+		if(entityCount == 0) return;
+
+		int currentQuery = ++queryId;
+		int minX = cell(boxMinX);
+		int minY = cell(boxMinY);
+		int minZ = cell(boxMinZ);
+		int maxX = cell(boxMaxX);
+		int maxY = cell(boxMaxY);
+		int maxZ = cell(boxMaxZ);
+
+		for(int x = minX; x <= maxX; x++) {
+			for(int y = minY; y <= maxY; y++) {
+				for(int z = minZ; z <= maxZ; z++) {
+					int slot = findSlot(key(x, y, z));
+					for(int entry = cellHeads[slot]; entry != EMPTY; entry = entryNext[entry]) {
+						int index = entryEntity[entry];
+						if(lastQuery[index] != currentQuery) {
+							lastQuery[index] = currentQuery;
+
+							Entity entity = entities[index];
+							if(entity == excluded1 || entity == excluded2 || entity == excluded3 || !entity.canBeCollidedWith()) continue;
+
+							//Same as AxisAlignedBB#intersectsWith
+							AxisAlignedBB box = entity.getEntityBoundingBox();
+							if(box.maxX > boxMinX && box.minX < boxMaxX && box.maxY > boxMinY && box.minY < boxMaxY && box.maxZ > boxMinZ
+									&& box.minZ < boxMaxZ && (predicate == null || predicate.test(entity))) {
+								list.add(entity);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static int cell(double coord) {
+		return (int)Math.floor(coord) >> CELL_SHIFT;
+	}
+
+	private static long key(int x, int y, int z) {
+		return (x & 0x1FFFFFL) | (y & 0x1FFFFFL) << 21 | (z & 0x1FFFFFL) << 42;
+	}
+
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int)(key ^ key >>> 32);
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.Entity;
+
+/**
+ * Finds the entities in a world from their UUID, without going through
+ * all the loaded entities. Entities are added when they join the world,
+ * and removed when their chunk unloads. Dead entities are removed when
+ * they are looked up, or in the next cleanup.
+ *
+ * Only weak references are kept, so that the index never keeps an entity alive.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EntityIndex {
+
+	private static final int CLEANUP_INTERVAL = 600;
+
+	private final Map<UUID, WeakReference<Entity>> entities = new HashMap<>();
+	private int ticksSinceCleanup = 0;
+
+	public void add(Entity entity) {
+		entities.put(entity.getUniqueID(), new WeakReference<>(entity));
+	}
+
+	public void remove(Entity entity) {
+		WeakReference<Entity> ref = entities.get(entity.getUniqueID());
+		//Another entity might have joined with the same UUID
+		if(ref != null && ref.get() == entity) {
+			entities.remove(entity.getUniqueID());
+		}
+	}
+
+	/**
+	 * Gets the live entity with an UUID, if it's in the world.
+	 */
+	@Nullable
+	public Entity get(UUID uuid) {
+		WeakReference<Entity> ref = entities.get(uuid);
+		if(ref == null) return null;
+
+		Entity entity = ref.get();
+		if(entity == null || entity.isDead) {
+			entities.remove(uuid);
+			return null;
+		}
+
+		return entity;
+	}
+
+	/**
+	 * Removes dead and collected entities every now and then. Called each tick.
+	 */
+	void tick() {
+		if(++ticksSinceCleanup >= CLEANUP_INTERVAL) {
+			ticksSinceCleanup = 0;
+			entities.values().removeIf(ref -> {
+				Entity entity = ref.get();
+				return entity == null || entity.isDead;
+			});
+		}
+	}
+}
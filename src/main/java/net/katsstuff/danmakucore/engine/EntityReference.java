@@ -0,0 +1,71 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+
+/**
+ * A reference to an entity by it's UUID, that finds the entity through the
+ * {@link EntityIndex} the first time it's needed. Used for entities that
+ * might not be loaded yet when the reference is read from NBT. The entity
+ * is only weakly referenced once found.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EntityReference<T extends Entity> {
+
+	private final UUID uuid;
+	private final Class<T> clazz;
+	@Nullable
+	private WeakReference<T> ref;
+
+	public EntityReference(UUID uuid, Class<T> clazz) {
+		this.uuid = uuid;
+		this.clazz = clazz;
+	}
+
+	/**
+	 * Creates a reference to an entity that is already known.
+	 */
+	@Nullable
+	public static <T extends Entity> EntityReference<T> of(@Nullable T entity, Class<T> clazz) {
+		if(entity == null) return null;
+
+		EntityReference<T> reference = new EntityReference<>(entity.getUniqueID(), clazz);
+		reference.ref = new WeakReference<>(entity);
+		return reference;
+	}
+
+	public UUID getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * Gets the entity, or tries to find it if it hasn't been found yet.
+	 * @return The entity, or null if it's not in the world.
+	 */
+	@Nullable
+	public T get(World world) {
+		T entity = ref == null ? null : ref.get();
+		if(entity == null) {
+			Entity found = DanmakuWorld.get(world).getEntityIndex().get(uuid);
+			if(clazz.isInstance(found)) {
+				entity = clazz.cast(found);
+				ref = new WeakReference<>(entity);
+			}
+		}
+
+		return entity;
+	}
+}
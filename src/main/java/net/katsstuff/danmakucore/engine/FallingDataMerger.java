@@ -0,0 +1,147 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import net.katsstuff.danmakucore.entity.EntityFallingData;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
+
+/**
+ * Merges {@link EntityFallingData} that would otherwise flood the world,
+ * the same way XP orbs do. Drops that spawn in the same tick close to each
+ * other, with the same type and target, become a single drop with the
+ * amounts added together. When there are too many drops in the world, new
+ * drops are added to the newest drop with the same type and target instead.
+ */
+@SuppressWarnings("WeakerAccess")
+public class FallingDataMerger {
+
+	private final Map<Key, EntityFallingData> spawnedThisTick = new HashMap<>();
+	private final Map<Key, EntityFallingData> newest = new HashMap<>();
+	private final Set<EntityFallingData> drops = new HashSet<>();
+
+	/**
+	 * How many drops are in the world.
+	 */
+	public int getCount() {
+		return drops.size();
+	}
+
+	/**
+	 * Tries to merge a new drop into an existing one. If that fails,
+	 * starts keeping track of the new drop.
+	 * @return If the drop was merged, and should not be spawned.
+	 */
+	public boolean tryMerge(EntityFallingData drop) {
+		if(drops.contains(drop)) return false;
+
+		EntityFallingData.DataType type = drop.getDataType();
+		UUID target = drop.getTargetUuid();
+
+		double mergeDistance = ConfigHandler.entities.fallingDataMergeDistance;
+		Key cellKey = null;
+		if(mergeDistance > 0D) {
+			cellKey = new Key(type, target, cell(drop.posX, mergeDistance), cell(drop.posY, mergeDistance), cell(drop.posZ, mergeDistance));
+			EntityFallingData existing = spawnedThisTick.get(cellKey);
+			if(existing != null && !existing.isDead) {
+				existing.addAmount(drop.getAmount());
+				return true;
+			}
+		}
+
+		Key typeKey = new Key(type, target, 0, 0, 0);
+		int max = ConfigHandler.entities.maxFallingDataPerWorld;
+		if(max > 0 && drops.size() >= max) {
+			EntityFallingData existing = newest.get(typeKey);
+			if(existing != null && !existing.isDead) {
+				existing.addAmount(drop.getAmount());
+				return true;
+			}
+		}
+
+		if(cellKey != null) {
+			spawnedThisTick.put(cellKey, drop);
+		}
+		newest.put(typeKey, drop);
+		drops.add(drop);
+		return false;
+	}
+
+	/**
+	 * Starts keeping track of a drop without trying to merge it. Used for
+	 * drops loaded with their chunk, which are still in the chunk even if
+	 * they are kept out of the world.
+	 */
+	public void track(EntityFallingData drop) {
+		if(drops.add(drop)) {
+			newest.put(new Key(drop.getDataType(), drop.getTargetUuid(), 0, 0, 0), drop);
+		}
+	}
+
+	/**
+	 * Stops keeping track of a drop that is no longer in the world.
+	 */
+	public void remove(EntityFallingData drop) {
+		drops.remove(drop);
+	}
+
+	/**
+	 * Forgets the drops from the last tick, and the drops that have died.
+	 * Called at the start of each tick.
+	 */
+	void tick() {
+		spawnedThisTick.clear();
+		drops.removeIf(drop -> drop.isDead);
+		newest.values().removeIf(drop -> drop.isDead);
+	}
+
+	private static int cell(double coord, double size) {
+		return (int)Math.floor(coord / size);
+	}
+
+	private static class Key {
+
+		private final EntityFallingData.DataType type;
+		@Nullable
+		private final UUID target;
+		private final int x;
+		private final int y;
+		private final int z;
+
+		private Key(EntityFallingData.DataType type, @Nullable UUID target, int x, int y, int z) {
+			this.type = type;
+			this.target = target;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+
+			Key key = (Key)o;
+			return x == key.x && y == key.y && z == key.z && type == key.type && Objects.equals(target, key.target);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, target, x, y, z);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A hierarchical timing wheel that calls back values when the tick they were
+ * scheduled for comes up. Scheduling is constant time, and each tick only
+ * looks at the values scheduled for that tick, no matter how many values
+ * are waiting.
+ *
+ * Each level has {@link #SLOTS} slots. The first level has a slot for each
+ * tick, and each level after that has slots that cover all of the level
+ * before it. Values in a higher level are moved down a level when their slot
+ * comes up. Values scheduled further ahead than the wheel can hold are called
+ * back early, so the callback should always check if it's really time.
+ */
+@SuppressWarnings("WeakerAccess")
+public class TimingWheel<T> {
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+	private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+	private List<Entry<T>> firing = new ArrayList<>();
+	private long currentTick;
+	private int size = 0;
+
+	/**
+	 * @param currentTick The tick the wheel starts at.
+	 */
+	public TimingWheel(long currentTick) {
+		this.currentTick = currentTick;
+		for(int i = 0; i < LEVELS * SLOTS; i++) {
+			slots.add(new ArrayList<>());
+		}
+	}
+
+	/**
+	 * How many values are waiting.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Schedules a value to be called back at a tick. If the tick has already
+	 * happened, it's called back the next tick instead.
+	 */
+	public void schedule(T value, long tick) {
+		long delay = Math.min(Math.max(tick - currentTick, 1), MAX_DELAY);
+		insert(new Entry<>(value, currentTick + delay, tick));
+		size++;
+	}
+
+	/**
+	 * Moves the wheel forward to a tick, calling back all the values scheduled
+	 * up to and including that tick. The callback gets the tick the value was
+	 * scheduled for, and can schedule new values.
+	 */
+	public void advance(long tick, ObjLongConsumer<T> callback) {
+		while(currentTick < tick) {
+			currentTick++;
+
+			//Higher levels first, so that values can cascade down more than one level in the same tick
+			for(int level = LEVELS - 1; level > 0; level--) {
+				if((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+					cascade(level);
+				}
+			}
+
+			List<Entry<T>> slot = slot(0, currentTick);
+			if(!slot.isEmpty()) {
+				//Swap the lists so that values scheduled by the callback don't end up in the list we are going through
+				List<Entry<T>> toFire = slot;
+				slots.set(index(0, currentTick), firing);
+				firing = toFire;
+
+				size -= toFire.size();
+				for(Entry<T> entry : toFire) {
+					callback.accept(entry.value, entry.scheduledTick);
+				}
+				toFire.clear();
+			}
+		}
+	}
+
+	private void cascade(int level) {
+		List<Entry<T>> slot = slot(level, currentTick);
+		if(!slot.isEmpty()) {
+			List<Entry<T>> toMove = new ArrayList<>(slot);
+			slot.clear();
+			for(Entry<T> entry : toMove) {
+				insert(entry);
+			}
+		}
+	}
+
+	private void insert(Entry<T> entry) {
+		long delay = entry.deadline - currentTick;
+		int level = 0;
+		while(level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+			level++;
+		}
+		slot(level, entry.deadline).add(entry);
+	}
+
+	private List<Entry<T>> slot(int level, long tick) {
+		return slots.get(index(level, tick));
+	}
+
+	private static int index(int level, long tick) {
+		return level * SLOTS + ((int)(tick >>> (SLOT_BITS * level)) & MASK);
+	}
+
+	private static class Entry<T> {
+
+		private final T value;
+		//When the wheel calls it back, which is the same as the scheduled tick unless it's too far ahead
+		private final long deadline;
+		private final long scheduledTick;
+
+		private Entry(T value, long deadline, long scheduledTick) {
+			this.value = value;
+			this.deadline = deadline;
+			this.scheduledTick = scheduledTick;
+		}
+	}
+}
@@ -14,6 +14,7 @@ import javax.annotation.Nullable;
 
 import net.katsstuff.danmakucore.CoreDataSerializers;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.EntityReference;
 import net.katsstuff.danmakucore.helper.NBTHelper;
 import net.katsstuff.danmakucore.helper.TouhouHelper;
 import net.minecraft.entity.Entity;
@@ -43,7 +44,7 @@ public class EntityFallingData extends Entity {
 	private static final DataParameter<DataType> DATA_TYPE = EntityDataManager.createKey(EntityFallingData.class, DATA_TYPE_SERIALIZER);
 
 	@Nullable
-	private Entity target;
+	private EntityReference<Entity> target;
 	private Vector3 angle;
 	private float amount;
 
@@ -55,7 +56,7 @@ public class EntityFallingData extends Entity {
 		this(world);
 		setDataType(dataType);
 		setPositionAndRotation(pos.x(), pos.y(), pos.z(), (float)angle.yaw(), (float)angle.pitch());
-		this.target = target;
+		this.target = EntityReference.of(target, Entity.class);
 		this.angle = angle;
 		this.amount = amount;
 	}
@@ -72,8 +73,9 @@ public class EntityFallingData extends Entity {
 		if(!world.isRemote) {
 
 			Vector3 motion;
-			if(target != null) {
-				motion = Vector3.angleToEntity(this, target);
+			Entity targetEntity = getTarget();
+			if(targetEntity != null) {
+				motion = Vector3.angleToEntity(this, targetEntity);
 			}
 			else {
 				motion = angle.multiply(0.25);
@@ -118,6 +120,30 @@ public class EntityFallingData extends Entity {
 		}
 	}
 
+	@Nullable
+	public Entity getTarget() {
+		return target == null ? null : target.get(world);
+	}
+
+	/**
+	 * The UUID of the target, even if the target isn't loaded.
+	 */
+	@Nullable
+	public UUID getTargetUuid() {
+		return target == null ? null : target.getUuid();
+	}
+
+	public float getAmount() {
+		return amount;
+	}
+
+	/**
+	 * Adds the amount of another drop to this one. Used when drops are merged.
+	 */
+	public void addAmount(float amount) {
+		this.amount += amount;
+	}
+
 	public DataType getDataType() {
 		return dataManager.get(DATA_TYPE);
 	}
@@ -128,14 +154,8 @@ public class EntityFallingData extends Entity {
 
 	@Override
 	protected void readEntityFromNBT(NBTTagCompound compound) {
-		UUID target = compound.getUniqueId("target");
-		if(target != null) {
-			Entity targetEntity = world.getPlayerEntityByUUID(target);
-			if(targetEntity == null) {
-				NBTHelper.getEntityByUUID(target, world);
-			}
-			this.target = targetEntity;
-		}
+		UUID targetUuid = compound.getUniqueId("target");
+		target = targetUuid == null ? null : new EntityReference<>(targetUuid, Entity.class);
 
 		angle = NBTHelper.getVector(compound, "angle");
 		amount = compound.getFloat("amount");
@@ -146,7 +166,7 @@ public class EntityFallingData extends Entity {
 	@Override
 	protected void writeEntityToNBT(NBTTagCompound compound) {
 		if(target != null) {
-			compound.setUniqueId("target", target.getUniqueID());
+			compound.setUniqueId("target", target.getUuid());
 		}
 
 		NBTHelper.setVector(compound, "angle", angle);
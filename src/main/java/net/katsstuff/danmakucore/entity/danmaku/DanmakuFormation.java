@@ -0,0 +1,167 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.entity.danmaku;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.katsstuff.danmakucore.data.MovementData;
+import net.katsstuff.danmakucore.data.Quat;
+import net.katsstuff.danmakucore.data.RotationData;
+import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
+import net.katsstuff.danmakucore.network.DanmakuCorePacketHandler;
+import net.katsstuff.danmakucore.network.FormationPacket;
+import net.minecraft.world.World;
+
+/**
+ * A group of danmaku that move and rotate together as one rigid body, for
+ * example a ring or a star. The members keep a fixed offset from the
+ * formation, and only the position and orientation of the formation itself
+ * is updated and sent to the clients each tick. The members are placed
+ * at their world position right before they check for hits.
+ *
+ * The danmaku that should be part of the formation is set using
+ * {@link DanmakuTemplate.Builder#setFormation(DanmakuFormation)}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DanmakuFormation {
+
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	private static final double SYNC_RANGE = 64D;
+	//How long a new formation waits for it's first member before it's forgotten
+	private static final int MAX_TICKS_WITHOUT_MEMBERS = 20;
+
+	private final World world;
+	private final int id;
+
+	private Vector3 pos;
+	private Quat orientation;
+
+	//Only used on the server
+	private Vector3 angle;
+	private MovementData movement;
+	private RotationData rotation;
+	private Vector3 motion = Vector3.Zero();
+	private int ticksExisted = 0;
+	private int members = 0;
+	private boolean hadMembers = false;
+	private int ticksWaiting = 0;
+	private double radius = 0D;
+
+	/**
+	 * Only used directly on the client. Use {@link #create(World, Vector3, Vector3, MovementData, RotationData)} on the server.
+	 */
+	public DanmakuFormation(World world, int id, Vector3 pos, Quat orientation) {
+		this.world = world;
+		this.id = id;
+		this.pos = pos;
+		this.orientation = orientation;
+	}
+
+	/**
+	 * Creates a new formation, that will start moving the next tick.
+	 * @param pos The center of the formation.
+	 * @param angle The direction the formation moves in.
+	 * @param movement How the formation moves, the same as for a single danmaku.
+	 * @param rotation How the formation rotates around it's center each tick.
+	 */
+	public static DanmakuFormation create(World world, Vector3 pos, Vector3 angle, MovementData movement, RotationData rotation) {
+		DanmakuFormation formation = new DanmakuFormation(world, NEXT_ID.getAndIncrement(), pos, new Quat(0D, 0D, 0D, 1D));
+		formation.angle = angle;
+		formation.movement = movement;
+		formation.rotation = rotation;
+		formation.motion = angle.multiply(movement.getSpeedOriginal());
+		DanmakuWorld.get(world).addFormation(formation);
+		return formation;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public Vector3 getPos() {
+		return pos;
+	}
+
+	public Quat getOrientation() {
+		return orientation;
+	}
+
+	/**
+	 * Gets where a member with an offset is in the world.
+	 */
+	public Vector3 getMemberPos(Vector3 offset) {
+		return pos.add(offset.rotate(orientation));
+	}
+
+	/**
+	 * Gets the offset a member at a position in the world has from this formation.
+	 */
+	public Vector3 getOffset(Vector3 worldPos) {
+		Quat inverse = new Quat(-orientation.x(), -orientation.y(), -orientation.z(), orientation.w());
+		return worldPos.subtract(pos).rotate(inverse);
+	}
+
+	/**
+	 * Called when a danmaku is added to this formation.
+	 */
+	public void addMember(Vector3 offset) {
+		members++;
+		hadMembers = true;
+		radius = Math.max(radius, offset.length());
+	}
+
+	/**
+	 * Called when a danmaku in this formation dies.
+	 */
+	public void removeMember() {
+		members--;
+	}
+
+	/**
+	 * Sets the pose of this formation. Used on the client.
+	 */
+	public void setPose(Vector3 pos, Quat orientation) {
+		this.pos = pos;
+		this.orientation = orientation;
+	}
+
+	/**
+	 * Moves and rotates this formation one tick, and sends the new pose to the clients.
+	 * Called once each tick on the server.
+	 * @return If this formation is still used. If not, the clients are told to forget it.
+	 */
+	public boolean tick() {
+		if(members <= 0) {
+			//The members might not have joined yet, for example if they are spawned through a DanmakuSpawnBatch
+			if(hadMembers || ++ticksWaiting > MAX_TICKS_WITHOUT_MEMBERS) {
+				sync(true);
+				return false;
+			}
+
+			return true;
+		}
+
+		ticksExisted++;
+		if(rotation.isEnabled() && ticksExisted < rotation.getEndTime()) {
+			orientation = rotation.getRotationQuat().multiply(orientation);
+		}
+
+		//The same steps as a single danmaku, so that the gravity builds up the same way
+		motion = movement.accelerate(motion, angle).add(movement.getGravity());
+		pos = pos.add(motion);
+
+		sync(false);
+		return true;
+	}
+
+	private void sync(boolean ended) {
+		DanmakuCorePacketHandler.sendToAllAround(new FormationPacket.Message(this, ended), pos, SYNC_RANGE + radius, world.provider.getDimension());
+	}
+}
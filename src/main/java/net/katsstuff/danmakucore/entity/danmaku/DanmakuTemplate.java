@@ -15,6 +15,9 @@ import net.katsstuff.danmakucore.data.Quat;
 import net.katsstuff.danmakucore.data.RotationData;
 import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuEngine;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.world.World;
@@ -33,9 +36,14 @@ public final class DanmakuTemplate {
 	public float roll = 0F;
 	public MovementData movement = MovementData.constant(0.4D);
 	public RotationData rotation = RotationData.none();
+	@Nullable
+	public FreezeGroup freezeGroup;
+	@Nullable
+	public DanmakuFormation formation;
+	public boolean ephemeral = false;
 
 	private DanmakuTemplate(World world, @Nullable EntityLivingBase user, @Nullable Entity source, ShotData shot, Vector3 pos, Vector3 angle,
-			float roll, MovementData movement, RotationData rotation) {
+			float roll, MovementData movement, RotationData rotation, @Nullable FreezeGroup freezeGroup, @Nullable DanmakuFormation formation, boolean ephemeral) {
 		this.world = world;
 		this.user = user;
 		this.source = source;
@@ -45,14 +53,62 @@ public final class DanmakuTemplate {
 		this.roll = roll;
 		this.movement = movement;
 		this.rotation = rotation;
+		this.freezeGroup = freezeGroup;
+		this.formation = formation;
+		this.ephemeral = ephemeral;
 	}
 
 	public DanmakuTemplate copy() {
-		return new DanmakuTemplate(world, user, source, shot, pos, angle, roll, movement, rotation);
+		return new DanmakuTemplate(world, user, source, shot, pos, angle, roll, movement, rotation, freezeGroup, formation, ephemeral);
 	}
 
+	/**
+	 * Creates a danmaku entity from this template. On the server, dead danmaku
+	 * are used again if the {@link net.katsstuff.danmakucore.engine.DanmakuPool} has any.
+	 */
 	public EntityDanmaku asEntity() {
-		return new EntityDanmaku(world, user, source, shot, pos, angle, roll, movement, rotation);
+		EntityDanmaku danmaku;
+		if(!world.isRemote) {
+			danmaku = DanmakuWorld.get(world).getPool().obtain(this);
+		}
+		else {
+			danmaku = new EntityDanmaku(world, user, source, shot, pos, angle, roll, movement, rotation);
+		}
+
+		danmaku.setFreezeGroup(freezeGroup);
+		danmaku.setEphemeral(ephemeral);
+		if(formation != null) {
+			danmaku.setFormation(formation, formation.getOffset(pos));
+		}
+		return danmaku;
+	}
+
+	/**
+	 * If this template can be simulated by the {@link DanmakuEngine} instead of
+	 * being spawned as an entity.
+	 */
+	public boolean canBeSimulated() {
+		return !world.isRemote && ConfigHandler.danmaku.simulateDanmaku && formation == null && shot.form().canBeSimulated()
+				&& shot.subEntity().canBeSimulated();
+	}
+
+	/**
+	 * Spawns this template into the world. If possible, no entity is created,
+	 * and the danmaku is simulated by the {@link DanmakuEngine} until it's
+	 * needed.
+	 * @return If the danmaku was spawned. False if there was no room for it.
+	 */
+	public boolean spawn() {
+		if(canBeSimulated()) {
+			DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+			if(!danmakuWorld.getBudget().tryReserveSimulated(user, pos)) return false;
+
+			danmakuWorld.getEngine().spawn(this);
+			return true;
+		}
+		else {
+			return world.spawnEntityInWorld(asEntity());
+		}
 	}
 
 	public static Builder builder() {
@@ -73,6 +129,11 @@ public final class DanmakuTemplate {
 		public float roll = 0F;
 		public MovementData movement = MovementData.constant(0.4D);
 		public RotationData rotation = RotationData.none();
+		@Nullable
+		public FreezeGroup freezeGroup;
+		@Nullable
+		public DanmakuFormation formation;
+		public boolean ephemeral = false;
 
 		public DanmakuTemplate build() {
 
@@ -106,7 +167,7 @@ public final class DanmakuTemplate {
 
 			if(shot == null) throw new IllegalArgumentException("Make sure that shot is set");
 
-			return new DanmakuTemplate(world, user, source, shot, pos, angle, roll, movement, rotation);
+			return new DanmakuTemplate(world, user, source, shot, pos, angle, roll, movement, rotation, freezeGroup, formation, ephemeral);
 		}
 
 		public Builder setWorld(World world) {
@@ -144,6 +205,31 @@ public final class DanmakuTemplate {
 			return this;
 		}
 
+		public Builder setFreezeGroup(@Nullable FreezeGroup freezeGroup) {
+			this.freezeGroup = freezeGroup;
+			return this;
+		}
+
+		/**
+		 * Makes the danmaku part of a formation. The danmaku keeps the offset
+		 * it has from the formation when it's created, and moves with the
+		 * formation instead of on it's own.
+		 */
+		public Builder setFormation(@Nullable DanmakuFormation formation) {
+			this.formation = formation;
+			return this;
+		}
+
+		/**
+		 * Makes the danmaku never be saved. It's removed instead when the
+		 * chunk it's in unloads. Useful for short lived danmaku, like most
+		 * of the danmaku in a spellcard.
+		 */
+		public Builder setEphemeral(boolean ephemeral) {
+			this.ephemeral = ephemeral;
+			return this;
+		}
+
 		public Builder setVariant(DanmakuVariant variant) {
 			setShot(variant.getShotData());
 			setMovementData(variant.getMovementData());
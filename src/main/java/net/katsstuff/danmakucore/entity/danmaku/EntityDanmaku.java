@@ -8,6 +8,7 @@
  */
 package net.katsstuff.danmakucore.entity.danmaku;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
@@ -17,32 +18,44 @@ import javax.annotation.Nullable;
 import com.google.common.math.DoubleMath;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.katsstuff.danmakucore.CoreDataSerializers;
 import net.katsstuff.danmakucore.data.MovementData;
 import net.katsstuff.danmakucore.data.Quat;
 import net.katsstuff.danmakucore.data.RotationData;
 import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuPool;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
+import net.katsstuff.danmakucore.engine.EntityReference;
+import net.katsstuff.danmakucore.entity.danmaku.form.Form;
 import net.katsstuff.danmakucore.entity.danmaku.subentity.SubEntity;
 import net.katsstuff.danmakucore.entity.danmaku.subentity.SubEntityType;
 import net.katsstuff.danmakucore.handler.ConfigHandler;
+import net.katsstuff.danmakucore.helper.DanmakuHelper;
 import net.katsstuff.danmakucore.helper.LogHelper;
 import net.katsstuff.danmakucore.helper.NBTHelper;
-import net.katsstuff.danmakucore.helper.TouhouHelper;
+import net.katsstuff.danmakucore.lib.data.LibForms;
 import net.katsstuff.danmakucore.lib.data.LibSubEntities;
 import net.katsstuff.danmakucore.misc.LogicalSideOnly;
+import net.katsstuff.danmakucore.network.DanmakuCorePacketHandler;
+import net.katsstuff.danmakucore.network.DanmakuCorrectionPacket;
+import net.katsstuff.danmakucore.registry.DanmakuRegistry;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.IProjectile;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.projectile.ProjectileHelper;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.datasync.DataParameter;
 import net.minecraft.network.datasync.DataSerializers;
 import net.minecraft.network.datasync.EntityDataManager;
-import net.minecraft.util.DamageSource;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.registry.IEntityAdditionalSpawnData;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -50,6 +63,11 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditionalSpawnData {
 
 	public static final double EPSILON = 1E-5;
+	/**
+	 * How far a target can move while a danmaku isn't ticked at full rate.
+	 */
+	private static final double TICK_RATE_TARGET_MARGIN = 4D;
+	private static final long NOT_SCHEDULED = -1L;
 
 	private static final String NBT_SHOT_DATA = "shotData";
 	private static final String NBT_ANGLE = "angle";
@@ -58,24 +76,94 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	private static final String NBT_SOURCE_UUID = "sourceUUID";
 	private static final String NBT_USER_UUID = "userUUID";
 	private static final String NBT_ROLL = "roll";
+	private static final String NBT_TICKS_DELAYED = "ticksDelayed";
+	private static final String NBT_TICKS_EXISTED = "ticksExisted";
+	private static final String NBT_SAVED_TIME = "savedTime";
+	private static final String NBT_SAVE_DATA = "saveData";
+	private static final byte SAVE_VERSION = 1;
+	private static final int SAVE_HAS_USER = 1;
+	private static final int SAVE_HAS_SOURCE = 2;
 
 	private static final DataParameter<ShotData> SHOT_DATA = EntityDataManager.createKey(EntityDanmaku.class, CoreDataSerializers.SHOTDATA);
 	private static final DataParameter<Float> ROLL = EntityDataManager.createKey(EntityDanmaku.class, DataSerializers.FLOAT);
 
+	//Found lazily, as the user and source might not be loaded yet when the danmaku is read from NBT
+	@Nullable
 	@LogicalSideOnly(Side.SERVER)
-	private EntityLivingBase user;
-	@LogicalSideOnly(Side.SERVER)
-	private Entity source;
+	private EntityReference<EntityLivingBase> user;
+	@Nullable
 	@LogicalSideOnly(Side.SERVER)
+	private EntityReference<Entity> source;
+	//Angle, movement and rotation are only present on the client if the movement is predicted
 	private Vector3 angle;
-	@LogicalSideOnly(Side.SERVER)
 	private MovementData movement;
-	@LogicalSideOnly(Side.SERVER)
 	private RotationData rotation;
 
 	private SubEntity subEntity;
 
+	/**
+	 * How many ticks this danmaku has spent waiting for it's delay. Counted
+	 * by both sides, so that the shot data doesn't have to be resent each tick.
+	 */
+	private int ticksDelayed = 0;
+
+	/**
+	 * If the client runs the same movement code as the server, instead of
+	 * getting the position and motion each tick.
+	 */
+	private boolean predicted = false;
+	@LogicalSideOnly(Side.SERVER)
+	private boolean motionChanged = false;
+
 	private boolean frozen = false;
+	@Nullable
+	private FreezeGroup freezeGroup;
+
+	/**
+	 * The formation this danmaku is part of, and where in the formation it is.
+	 * Members don't move on their own, but follow the formation instead.
+	 */
+	@Nullable
+	private DanmakuFormation formation;
+	private Vector3 formationOffset = Vector3.Zero();
+
+	/**
+	 * How often this danmaku gets a full tick. Danmaku far away from all
+	 * players catch up on the ticks they skipped right before their next full tick.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private int tickInterval = 1;
+	@LogicalSideOnly(Side.SERVER)
+	private int skippedTicks = 0;
+	//How long the danmaku was unloaded for, if it was loaded from NBT
+	@LogicalSideOnly(Side.SERVER)
+	private int unloadedTicks = 0;
+	//If this danmaku is never saved, and is removed when it's chunk unloads instead
+	@LogicalSideOnly(Side.SERVER)
+	private boolean ephemeral = false;
+
+	/**
+	 * When this danmaku is scheduled in the {@link net.katsstuff.danmakucore.engine.TimingWheel}s
+	 * of it's world. While the delay is scheduled, the danmaku waits without ticking.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private long delayReleaseTick = NOT_SCHEDULED;
+	@LogicalSideOnly(Side.SERVER)
+	private long expiryTick = NOT_SCHEDULED;
+	//If the timers were stopped because the danmaku was frozen. They are scheduled again when it's unfrozen
+	@LogicalSideOnly(Side.SERVER)
+	private boolean timersPaused = false;
+
+	//The rotated size of the complex hitbox, and the rotation and size it was computed from
+	private float hitboxYaw = Float.NaN;
+	private float hitboxPitch;
+	private float hitboxRoll;
+	private float hitboxSizeX;
+	private float hitboxSizeY;
+	private float hitboxSizeZ;
+	private double hitboxHalfX;
+	private double hitboxHeight;
+	private double hitboxHalfZ;
 
 	public EntityDanmaku(World world) {
 		super(world);
@@ -85,8 +173,8 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 
 	public EntityDanmaku(World world, EntityLivingBase user, Entity source, ShotData shot) {
 		this(world, shot);
-		this.user = user;
-		this.source = source;
+		this.user = EntityReference.of(user, EntityLivingBase.class);
+		this.source = EntityReference.of(source, Entity.class);
 
 		movement = MovementData.constant(0.4D);
 		rotation = RotationData.none();
@@ -114,8 +202,8 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	public EntityDanmaku(World world, @Nullable EntityLivingBase user, @Nullable Entity source, ShotData shot, Vector3 pos, Vector3 angle,
 			float roll, MovementData movement, RotationData rotation) {
 		this(world, shot, pos, angle, movement);
-		this.user = user;
-		this.source = source;
+		this.user = EntityReference.of(user, EntityLivingBase.class);
+		this.source = EntityReference.of(source, Entity.class);
 		setRoll(roll);
 		this.rotation = rotation;
 	}
@@ -126,12 +214,46 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	}
 
 	private EntityDanmaku(EntityDanmaku old) {
-		this(old.world, old.user, old.source, old.getShotData(), new Vector3(old), old.angle, old.getRoll(), old.movement, old.rotation);
+		this(old.world, old.getUserEntity(), old.getSourceEntity(), old.getShotData(), new Vector3(old), old.angle, old.getRoll(), old.movement, old.rotation);
+		ticksDelayed = old.getTicksDelayed();
+		ephemeral = old.ephemeral;
 	}
 
 	@Override
 	public void writeSpawnData(ByteBuf buf) {
 		getShotData().serializeByteBuf(buf);
+		buf.writeInt(getTicksDelayed());
+
+		predicted = shouldPredict();
+		buf.writeBoolean(predicted);
+		if(predicted) {
+			writeMovementState(buf);
+		}
+
+		buf.writeBoolean(frozen);
+		buf.writeInt(freezeGroup == null ? -1 : freezeGroup.getId());
+		buf.writeBoolean(freezeGroup != null && freezeGroup.isFrozen());
+
+		buf.writeInt(formation == null ? -1 : formation.getId());
+		if(formation != null) {
+			writeVector(buf, formationOffset);
+			writeVector(buf, formation.getPos());
+			Quat orientation = formation.getOrientation();
+			buf.writeDouble(orientation.x());
+			buf.writeDouble(orientation.y());
+			buf.writeDouble(orientation.z());
+			buf.writeDouble(orientation.w());
+		}
+	}
+
+	private static void writeVector(ByteBuf buf, Vector3 vec) {
+		buf.writeDouble(vec.x());
+		buf.writeDouble(vec.y());
+		buf.writeDouble(vec.z());
+	}
+
+	private static Vector3 readVector(ByteBuf buf) {
+		return new Vector3(buf.readDouble(), buf.readDouble(), buf.readDouble());
 	}
 
 	@Override
@@ -139,6 +261,112 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 		ShotData shot = new ShotData(buf);
 		setShotData(shot);
 		setSize(shot.sizeX(), shot.sizeY(), shot.sizeZ());
+		ticksDelayed = buf.readInt();
+
+		if(buf.readBoolean()) {
+			readMovementState(buf);
+		}
+
+		frozen = buf.readBoolean();
+		int groupId = buf.readInt();
+		boolean groupFrozen = buf.readBoolean();
+		if(groupId != -1) {
+			freezeGroup = DanmakuWorld.get(world).getFreezeGroup(groupId);
+			freezeGroup.setFrozen(groupFrozen);
+		}
+
+		int formationId = buf.readInt();
+		if(formationId != -1) {
+			formationOffset = readVector(buf);
+			Vector3 formationPos = readVector(buf);
+			Quat orientation = new Quat(buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readDouble());
+			formation = DanmakuWorld.get(world).getFormation(formationId, formationPos, orientation);
+		}
+	}
+
+	/**
+	 * Writes everything the client needs to predict how this danmaku moves.
+	 */
+	public void writeMovementState(ByteBuf buf) {
+		buf.writeDouble(posX);
+		buf.writeDouble(posY);
+		buf.writeDouble(posZ);
+		buf.writeDouble(motionX);
+		buf.writeDouble(motionY);
+		buf.writeDouble(motionZ);
+		buf.writeDouble(angle.x());
+		buf.writeDouble(angle.y());
+		buf.writeDouble(angle.z());
+		buf.writeInt(ticksExisted);
+
+		buf.writeDouble(movement.getSpeedOriginal());
+		buf.writeDouble(movement.getLowerSpeedLimit());
+		buf.writeDouble(movement.getUpperSpeedLimit());
+		buf.writeDouble(movement.getSpeedAcceleration());
+		Vector3 gravity = movement.getGravity();
+		buf.writeDouble(gravity.x());
+		buf.writeDouble(gravity.y());
+		buf.writeDouble(gravity.z());
+
+		buf.writeBoolean(rotation.isEnabled());
+		Quat quat = rotation.getRotationQuat();
+		buf.writeDouble(quat.x());
+		buf.writeDouble(quat.y());
+		buf.writeDouble(quat.z());
+		buf.writeDouble(quat.w());
+		buf.writeInt(rotation.getEndTime());
+
+		buf.writeBoolean(frozen);
+	}
+
+	/**
+	 * Reads the state written by {@link #writeMovementState(ByteBuf)}, and
+	 * starts predicting the movement of this danmaku.
+	 */
+	public void readMovementState(ByteBuf buf) {
+		double x = buf.readDouble();
+		double y = buf.readDouble();
+		double z = buf.readDouble();
+		motionX = buf.readDouble();
+		motionY = buf.readDouble();
+		motionZ = buf.readDouble();
+		angle = new Vector3(buf.readDouble(), buf.readDouble(), buf.readDouble());
+		ticksExisted = buf.readInt();
+
+		movement = new MovementData(buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readDouble(),
+				new Vector3(buf.readDouble(), buf.readDouble(), buf.readDouble()));
+		rotation = new RotationData(buf.readBoolean(), new Quat(buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readDouble()),
+				buf.readInt());
+
+		frozen = buf.readBoolean();
+		predicted = true;
+		setPosition(x, y, z);
+	}
+
+	/**
+	 * If the client runs the movement code for this danmaku itself. True
+	 * on the server too if the clients are told to do so.
+	 */
+	public boolean isPredicted() {
+		return predicted;
+	}
+
+	/**
+	 * If the clients should predict this danmaku. Only possible if the form
+	 * and subentity don't change the movement in ways the client can't know about.
+	 */
+	private boolean shouldPredict() {
+		ShotData shot = getShotData();
+		return ConfigHandler.danmaku.clientPrediction && formation == null && shot.form().canBeSimulated() && shot.subEntity().canBeSimulated();
+	}
+
+	/**
+	 * Tells the clients predicting this danmaku that the motion was changed
+	 * by something other than the normal movement code. Call this if you change
+	 * the motion directly from a form or subentity.
+	 */
+	public void markMotionChanged() {
+		motionChanged = true;
 	}
 
 	@SuppressWarnings("unused")
@@ -201,23 +429,348 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 			}
 		}
 
-		if(!frozen) {
-			if(!world.isRemote && ticksExisted > shot.end()) {
-				setDead();
+		if(!isFrozen()) {
+			if(!world.isRemote && timersPaused) {
+				scheduleTimers();
+			}
+
+			if(!world.isRemote && unloadedTicks > 0 && catchUpUnloaded()) {
 				return;
 			}
 
-			if(!world.isRemote && user != null && user.isDead) {
-				danmakuFinishBonus();
+			//Released by the timing wheel. The world has already counted this tick, but delayed danmaku don't age
+			if(!world.isRemote && delayReleaseTick != NOT_SCHEDULED) {
+				ticksExisted--;
+				super.onUpdate();
+				shot.getForm().onTick(this);
 				return;
 			}
 
-			super.onUpdate();
-			shot.getForm().onTick(this);
-			subEntity.subEntityTick();
+			if(!world.isRemote && skipTick()) {
+				return;
+			}
+
+			fullTick();
+
+			if(!world.isRemote) {
+				tickInterval = computeTickInterval();
+				DanmakuWorld.get(world).getBudget().updateChunk(this);
+			}
+		}
+		else {
+			//Frozen danmaku don't age
+			ticksExisted--;
+			if(!world.isRemote && !timersPaused) {
+				pauseTimers();
+			}
+		}
+	}
+
+	private void fullTick() {
+		ShotData shot = getShotData();
 
-			setPosition(posX + motionX, posY + motionY, posZ + motionZ);
+		//Danmaku with a dead user are removed by DanmakuWorld all at once
+		super.onUpdate();
+		shot.getForm().onTick(this);
+		if(formation != null) {
+			followFormation();
 		}
+		subEntity.subEntityTick();
+
+		setPosition(posX + motionX, posY + motionY, posZ + motionZ);
+
+		//The clients place the members of a formation themselves
+		if(!world.isRemote && ConfigHandler.danmaku.clientPrediction && formation == null) {
+			syncPrediction();
+		}
+	}
+
+	/**
+	 * Skips this tick if the danmaku isn't ticked at full rate. Otherwise
+	 * catches up on the ticks that were skipped.
+	 * @return If this tick should be skipped.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private boolean skipTick() {
+		if(++skippedTicks < tickInterval) {
+			return true;
+		}
+
+		int toCatchUp = skippedTicks - 1;
+		skippedTicks = 0;
+
+		//The world has already counted the skipped ticks, so we go back and count them again as they are done
+		ticksExisted -= toCatchUp;
+
+		if(toCatchUp > 0 && fastForward(toCatchUp)) {
+			return false;
+		}
+
+		int done = 0;
+		while(done < toCatchUp && !isDead && catchUpTick()) {
+			done++;
+		}
+
+		//Something is in the way, so the rest of the ticks need to be full ticks
+		//The timing wheel only kills the danmaku at the start of the tick, so we check the end time here
+		while(done < toCatchUp && !isDead && ticksExisted <= getShotData().end()) {
+			ticksExisted++;
+			fullTick();
+			done++;
+		}
+
+		//Ticks that were not done because the danmaku reached it's end time still count
+		ticksExisted += toCatchUp - done;
+		return isDead;
+	}
+
+	/**
+	 * Moves the danmaku to where it would have been if it had not been unloaded.
+	 * If it would have been dead by then, it's killed instead.
+	 * @return If the danmaku died.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private boolean catchUpUnloaded() {
+		int ticks = unloadedTicks;
+		unloadedTicks = 0;
+
+		if(getDelayLeft() == 0 && (long)ticksExisted + ticks > getShotData().end()) {
+			setDead();
+			return true;
+		}
+
+		//If the movement is too complex to skip ahead, it just continues from where it was
+		if(fastForward(ticks)) {
+			//The rest of the tick might be skipped, so the budget and index are told about the new position here
+			DanmakuWorld.get(world).getBudget().updateChunk(this);
+		}
+		return false;
+	}
+
+	/**
+	 * Moves this danmaku several ticks ahead at once, using {@link MovementData#positionAfter(Vector3, Vector3, double, int)}
+	 * instead of going through each tick. Only possible if the danmaku isn't delayed or rotating,
+	 * if the movement has a closed form, and if nothing is in the way. The form and subentity
+	 * are not called, and no hits are checked, so only use this when nothing can be hit.
+	 * The ticks are added to the age of the danmaku, so they should not already be counted.
+	 * @return If the danmaku was moved. If not, nothing is changed.
+	 */
+	public boolean fastForward(int ticks) {
+		if(ticks <= 0) return ticks == 0;
+
+		ShotData shot = getShotData();
+		boolean rotating = rotation.isEnabled() && ticksExisted + 1 < rotation.getEndTime();
+		if(formation != null || getDelayLeft() > 0 || rotating || !movement.hasClosedForm() || isInWater() || isUserDead()
+				|| (long)ticksExisted + ticks - 1 > shot.end()) {
+			return false;
+		}
+
+		double currentSpeed = Math.sqrt(motionX * motionX + motionY * motionY + motionZ * motionZ);
+		Vector3 start = new Vector3(this);
+		Vector3 end = movement.positionAfter(start, angle, currentSpeed, ticks);
+		if(!DanmakuWorld.get(world).getBlockCache().isClear(start.x(), start.y(), start.z(), end.x(), end.y(), end.z())) {
+			return false;
+		}
+
+		Vector3 prev = ticks == 1 ? start : movement.positionAfter(start, angle, currentSpeed, ticks - 1);
+		Vector3 motion = movement.motionAfter(angle, currentSpeed, ticks);
+
+		prevPosX = prev.x();
+		prevPosY = prev.y();
+		prevPosZ = prev.z();
+		prevRotationYaw = rotationYaw;
+		prevRotationPitch = rotationPitch;
+		motionX = motion.x();
+		motionY = motion.y();
+		motionZ = motion.z();
+		ticksExisted += ticks;
+
+		if(motionX != 0D && motionY != 0D && motionZ != 0D) {
+			ProjectileHelper.rotateTowardsMovement(this, 1F);
+		}
+
+		setPosition(end.x(), end.y(), end.z());
+		return true;
+	}
+
+	/**
+	 * Moves this danmaku one tick the same way {@link net.katsstuff.danmakucore.impl.subentity.SubEntityTypeDefault} does,
+	 * but without calling the form and subentity, and without checking for hits.
+	 * Only used for ticks skipped because no player or target was nearby.
+	 * @return If the tick could be done this way. If not, nothing is changed, and a full tick should be done instead.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private boolean catchUpTick() {
+		if(ticksExisted > getShotData().end() || isUserDead() || isInWater()) {
+			return false;
+		}
+
+		prevPosX = posX;
+		prevPosY = posY;
+		prevPosZ = posZ;
+		prevRotationYaw = rotationYaw;
+		prevRotationPitch = rotationPitch;
+
+		//Delayed danmaku don't tick on the server, so there is no delay to count down here
+		Vector3 oldAngle = angle;
+		double oldMotionX = motionX;
+		double oldMotionY = motionY;
+		double oldMotionZ = motionZ;
+
+		ticksExisted++;
+		if(rotation.isEnabled() && ticksExisted < rotation.getEndTime()) {
+			angle = angle.rotate(rotation.getRotationQuat());
+		}
+
+		accelerate(getCurrentSpeed());
+
+		Vector3 gravity = movement.getGravity();
+		motionX += gravity.x();
+		motionY += gravity.y();
+		motionZ += gravity.z();
+
+		if(!DanmakuWorld.get(world).getBlockCache().isClear(posX, posY, posZ, posX + motionX, posY + motionY, posZ + motionZ)) {
+			ticksExisted--;
+			angle = oldAngle;
+			motionX = oldMotionX;
+			motionY = oldMotionY;
+			motionZ = oldMotionZ;
+			return false;
+		}
+
+		if(motionX != 0D && motionY != 0D && motionZ != 0D) {
+			ProjectileHelper.rotateTowardsMovement(this, 1F);
+		}
+
+		setPosition(posX + motionX, posY + motionY, posZ + motionZ);
+		return true;
+	}
+
+	/**
+	 * Finds how often this danmaku should get a full tick, from how far
+	 * away it is from the closest player, and if any target is close enough
+	 * to be hit before the next full tick.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private int computeTickInterval() {
+		ShotData shot = getShotData();
+		if(formation != null || !shot.form().canBeSimulated() || !shot.subEntity().canBeSimulated()) {
+			return 1;
+		}
+
+		double closestSq = Double.MAX_VALUE;
+		for(EntityPlayer player : world.playerEntities) {
+			closestSq = Math.min(closestSq, player.getDistanceSq(posX, posY, posZ));
+		}
+
+		int interval;
+		if(isPastDistance(closestSq, ConfigHandler.danmaku.eighthTickRateDistance)) {
+			interval = 8;
+		}
+		else if(isPastDistance(closestSq, ConfigHandler.danmaku.quarterTickRateDistance)) {
+			interval = 4;
+		}
+		else if(isPastDistance(closestSq, ConfigHandler.danmaku.halfTickRateDistance)) {
+			interval = 2;
+		}
+		else {
+			return 1;
+		}
+
+		double reach = getCurrentSpeed() * interval + TICK_RATE_TARGET_MARGIN + Math.max(shot.sizeX(), Math.max(shot.sizeY(), shot.sizeZ()));
+		List<Entity> targets = DanmakuWorld.get(world)
+				.getCollidableEntities(posX - reach, posY - reach, posZ - reach, posX + reach, posY + reach, posZ + reach, this, getUserEntity(), getSourceEntity());
+		return targets.isEmpty() ? interval : 1;
+	}
+
+	private static boolean isPastDistance(double distanceSq, int distance) {
+		return distance > 0 && distanceSq >= (double)distance * distance;
+	}
+
+	@Override
+	public void setDead() {
+		boolean wasAlive = !isDead;
+		super.setDead();
+		if(!world.isRemote && wasAlive) {
+			leaveFormation();
+			DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+			danmakuWorld.getBudget().untrack(this);
+			danmakuWorld.getPool().release(this);
+		}
+	}
+
+	/**
+	 * Turns a dead danmaku into a new one, the same as if it was created with the constructor.
+	 * Only used by the {@link net.katsstuff.danmakucore.engine.DanmakuPool}, after the danmaku has been removed from the world.
+	 */
+	public void recycle(@Nullable EntityLivingBase user, @Nullable Entity source, ShotData shot, Vector3 pos, Vector3 angle, float roll,
+			MovementData movement, RotationData rotation) {
+		setEntityId(DanmakuPool.nextEntityId());
+		setUniqueId(new UUID(rand.nextLong() & -61441L | 16384L, rand.nextLong() & 4611686018427387903L | Long.MIN_VALUE));
+		isDead = false;
+		addedToChunk = false;
+		firstUpdate = true;
+		ticksExisted = 0;
+		fallDistance = 0F;
+		isAirBorne = false;
+		velocityChanged = false;
+		extinguish();
+
+		ticksDelayed = 0;
+		delayReleaseTick = NOT_SCHEDULED;
+		expiryTick = NOT_SCHEDULED;
+		timersPaused = false;
+		predicted = false;
+		motionChanged = false;
+		frozen = false;
+		freezeGroup = null;
+		formation = null;
+		formationOffset = Vector3.Zero();
+		tickInterval = 1;
+		skippedTicks = 0;
+		unloadedTicks = 0;
+		ephemeral = false;
+
+		this.user = EntityReference.of(user, EntityLivingBase.class);
+		this.source = EntityReference.of(source, Entity.class);
+		SubEntityType oldSubEntity = getShotData().subEntity();
+		//We don't call the hooks here, the same as when the danmaku is created
+		dataManager.set(SHOT_DATA, shot);
+		if(subEntity == null || shot.subEntity() != oldSubEntity) {
+			subEntity = shot.subEntity().instantiate(world, this);
+		}
+
+		this.angle = angle;
+		this.movement = movement;
+		this.rotation = rotation;
+		rotationYaw = 0F;
+		rotationPitch = 0F;
+		setPosition(pos.x(), pos.y(), pos.z());
+		prevPosX = lastTickPosX = posX;
+		prevPosY = lastTickPosY = posY;
+		prevPosZ = lastTickPosZ = posZ;
+		resetMotion();
+		setRoll(roll);
+	}
+
+	@LogicalSideOnly(Side.SERVER)
+	private void syncPrediction() {
+		boolean shouldPredict = shouldPredict();
+
+		if(!shouldPredict) {
+			//Without prediction we send everything each tick like before
+			isAirBorne = true;
+			velocityChanged = true;
+		}
+
+		if(motionChanged || shouldPredict != predicted) {
+			predicted = shouldPredict;
+			if(predicted) {
+				DanmakuCorePacketHandler.sendToAllAround(new DanmakuCorrectionPacket.Message(this), new Vector3(this), 64D, dimension);
+			}
+		}
+
+		motionChanged = false;
 	}
 
 	public void accelerate(double currentSpeed) {
@@ -291,10 +844,141 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 		ShotData toUse = first ? shot : subEntity.onShotDataChange(oldShot, oldShot.form().onShotDataChange(oldShot, shot), shot);
 
 		SubEntityType oldSubEntity = getShotData().subEntity();
+		boolean delayChanged = toUse.delay() != oldShot.delay();
+		if(delayChanged) {
+			ticksDelayed = 0;
+			delayReleaseTick = NOT_SCHEDULED;
+		}
 		dataManager.set(SHOT_DATA, toUse);
 		if(toUse.subEntity() != oldSubEntity || first || forceNewSubentity) {
 			subEntity = toUse.subEntity().instantiate(world, this);
 		}
+
+		//Only reschedule if the danmaku is already in the world
+		if(!world.isRemote && expiryTick != NOT_SCHEDULED && (delayChanged || toUse.end() != oldShot.end())) {
+			scheduleTimers();
+		}
+	}
+
+	/**
+	 * Sets the shot data without notifying the form or subentity.
+	 * Only used when rendering danmaku that doesn't have an entity.
+	 */
+	@SideOnly(Side.CLIENT)
+	public void setRenderShotData(ShotData shot) {
+		dataManager.set(SHOT_DATA, shot);
+	}
+
+	/**
+	 * Gets how many ticks are left before this danmaku stops being delayed.
+	 */
+	public int getDelayLeft() {
+		if(!world.isRemote && delayReleaseTick != NOT_SCHEDULED) {
+			return (int)Math.max(delayReleaseTick - world.getTotalWorldTime(), 1L);
+		}
+
+		return Math.max(getShotData().delay() - ticksDelayed, 0);
+	}
+
+	private int getTicksDelayed() {
+		return getShotData().delay() - getDelayLeft();
+	}
+
+	/**
+	 * Counts down the delay of this danmaku by one tick. Only used on the
+	 * client, as the server releases danmaku from their delay in bulk.
+	 * @return How many ticks of delay are left.
+	 */
+	public int countDownDelay() {
+		ticksDelayed++;
+		return getDelayLeft();
+	}
+
+	/**
+	 * Schedules when this danmaku stops being delayed, and when it reaches
+	 * it's end time. Called when the danmaku joins the world, and when it's unfrozen.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	public void scheduleTimers() {
+		DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+		long time = world.getTotalWorldTime();
+		timersPaused = false;
+
+		int delayLeft = getDelayLeft();
+		if(delayLeft > 0) {
+			delayReleaseTick = time + delayLeft;
+			danmakuWorld.getDelayTimers().schedule(this, delayReleaseTick);
+			//Delayed danmaku aren't ticked, so the motion is stopped here, before the clients are told about it
+			motionX = 0D;
+			motionY = 0D;
+			motionZ = 0D;
+		}
+
+		scheduleExpiry(time + delayLeft);
+	}
+
+	@LogicalSideOnly(Side.SERVER)
+	private void scheduleExpiry(long from) {
+		//Rather too early than too late. If it's too early, it's scheduled again
+		expiryTick = from + Math.max(getShotData().end() - ticksExisted, 1);
+		DanmakuWorld.get(world).getExpiryTimers().schedule(this, expiryTick);
+	}
+
+	/**
+	 * Stops the timers of this danmaku, and remembers how far into the delay it got.
+	 * Called when the danmaku is unloaded.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	public void cancelTimers() {
+		ticksDelayed = getTicksDelayed();
+		delayReleaseTick = NOT_SCHEDULED;
+		expiryTick = NOT_SCHEDULED;
+	}
+
+	/**
+	 * Stops the timers while this danmaku is frozen, so that the frozen time
+	 * is added to the delay, and doesn't count towards the end time.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	private void pauseTimers() {
+		cancelTimers();
+		timersPaused = true;
+	}
+
+	/**
+	 * Called by the timing wheel when the delay of this danmaku ends.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	public void onDelayTimer(long tick) {
+		if(isDead || tick != delayReleaseTick) return;
+
+		//Frozen since the last time it was updated
+		if(isFrozen()) {
+			pauseTimers();
+		}
+		else {
+			delayReleaseTick = NOT_SCHEDULED;
+			ticksDelayed = getShotData().delay();
+			resetMotion();
+		}
+	}
+
+	/**
+	 * Called by the timing wheel when this danmaku might have reached it's end time.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	public void onExpiryTimer(long tick) {
+		if(isDead || tick != expiryTick) return;
+
+		if(isFrozen()) {
+			pauseTimers();
+		}
+		else if(getDelayLeft() == 0 && ticksExisted > getShotData().end()) {
+			setDead();
+		}
+		else {
+			scheduleExpiry(world.getTotalWorldTime() + getDelayLeft());
+		}
 	}
 
 	public float getRoll() {
@@ -313,11 +997,43 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	}
 
 	public Optional<EntityLivingBase> getUser() {
-		return Optional.ofNullable(user);
+		return Optional.ofNullable(getUserEntity());
 	}
 
 	public Optional<Entity> getSource() {
-		return Optional.ofNullable(source);
+		return Optional.ofNullable(getSourceEntity());
+	}
+
+	/**
+	 * Same as {@link #getUser()}, but without creating an {@link Optional}.
+	 */
+	@Nullable
+	public EntityLivingBase getUserEntity() {
+		return user == null ? null : user.get(world);
+	}
+
+	/**
+	 * The UUID of the user, even if the user isn't loaded.
+	 */
+	@Nullable
+	public UUID getUserUuid() {
+		return user == null ? null : user.getUuid();
+	}
+
+	/**
+	 * Same as {@link #getSource()}, but without creating an {@link Optional}.
+	 */
+	@Nullable
+	public Entity getSourceEntity() {
+		return source == null ? null : source.get(world);
+	}
+
+	/**
+	 * If the user has died. A user that isn't loaded doesn't count as dead.
+	 */
+	private boolean isUserDead() {
+		EntityLivingBase living = getUserEntity();
+		return living != null && living.isDead;
 	}
 
 	public Vector3 getAngle() {
@@ -325,7 +1041,18 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	}
 
 	public void setAngle(Vector3 angle) {
+		setAngle(angle, true);
+	}
+
+	/**
+	 * @param correctClients If clients predicting the movement should be told
+	 * about the change. False if the client does the same change on it's own.
+	 */
+	public void setAngle(Vector3 angle, boolean correctClients) {
 		this.angle = angle;
+		if(correctClients) {
+			markMotionChanged();
+		}
 	}
 
 	public MovementData getMovementData() {
@@ -336,6 +1063,7 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	public void setMovementData(MovementData movement) {
 		MovementData old = this.movement;
 		this.movement = subEntity.onMovementDataChange(old, getShotData().form().onMovementDataChange(old, movement), movement);
+		markMotionChanged();
 	}
 
 	public RotationData getRotationData() {
@@ -346,6 +1074,7 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	public void setRotationData(RotationData rotation) {
 		RotationData old = this.rotation;
 		this.rotation = subEntity.onRotationDataChange(old, getShotData().form().onRotationDataChange(old, rotation), rotation);
+		markMotionChanged();
 	}
 
 	public double getCurrentSpeed() {
@@ -388,11 +1117,10 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 			this.posX = x;
 			this.posY = y;
 			this.posZ = z;
-			ShotData shot = getShotData();
-			Vector3 size = new Vector3(shot.sizeX(), shot.sizeY(), shot.sizeZ()).rotate(Quat.eulerToQuat(rotationYaw + 180, rotationPitch, getRoll()));
-			double xSize = size.x() / 2F;
-			double zSize = size.z() / 2F;
-			double ySize = size.y();
+			updateHitboxSize();
+			double xSize = hitboxHalfX;
+			double zSize = hitboxHalfZ;
+			double ySize = hitboxHeight;
 			if(ySize < 0) {
 				this.setEntityBoundingBox(new AxisAlignedBB(x - xSize, y - ySize, z - zSize, x + xSize, y, z + zSize));
 			}
@@ -405,23 +1133,179 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 		}
 	}
 
+	/**
+	 * Recomputes the rotated size of the complex hitbox, if the rotation or size changed.
+	 */
+	private void updateHitboxSize() {
+		ShotData shot = getShotData();
+		float roll = getRoll();
+		if(rotationYaw != hitboxYaw || rotationPitch != hitboxPitch || roll != hitboxRoll || shot.sizeX() != hitboxSizeX
+				|| shot.sizeY() != hitboxSizeY || shot.sizeZ() != hitboxSizeZ) {
+			hitboxYaw = rotationYaw;
+			hitboxPitch = rotationPitch;
+			hitboxRoll = roll;
+			hitboxSizeX = shot.sizeX();
+			hitboxSizeY = shot.sizeY();
+			hitboxSizeZ = shot.sizeZ();
+
+			Vector3 size = new Vector3(shot.sizeX(), shot.sizeY(), shot.sizeZ()).rotate(Quat.eulerToQuat(rotationYaw + 180, rotationPitch, roll));
+			hitboxHalfX = size.x() / 2F;
+			hitboxHalfZ = size.z() / 2F;
+			hitboxHeight = size.y();
+		}
+	}
+
+	/**
+	 * If this danmaku is written to the chunk it's in when the chunk is saved.
+	 */
+	public boolean shouldSave() {
+		return !ephemeral && ConfigHandler.danmaku.saveDanmaku;
+	}
+
+	public boolean isEphemeral() {
+		return ephemeral;
+	}
+
+	/**
+	 * Sets if this danmaku should never be saved. Ephemeral danmaku are
+	 * removed when their chunk unloads instead.
+	 */
+	public void setEphemeral(boolean ephemeral) {
+		this.ephemeral = ephemeral;
+	}
+
+	@Override
+	public boolean writeToNBTOptional(NBTTagCompound compound) {
+		//Used when the chunk is saved
+		return shouldSave() && super.writeToNBTOptional(compound);
+	}
+
 	@Override
 	public void writeEntityToNBT(NBTTagCompound nbtTag) {
-		getUser().ifPresent(living -> nbtTag.setUniqueId(NBT_USER_UUID, living.getUniqueID()));
-		getSource().ifPresent(entity -> nbtTag.setUniqueId(NBT_SOURCE_UUID, entity.getUniqueID()));
-		NBTHelper.setVector(nbtTag, NBT_ANGLE, angle);
+		ByteBuf buf = Unpooled.buffer();
+		writeSaveData(buf);
+		byte[] bytes = new byte[buf.readableBytes()];
+		buf.readBytes(bytes);
+		nbtTag.setByteArray(NBT_SAVE_DATA, bytes);
+	}
 
-		nbtTag.setTag(NBT_MOVEMENT, movement.serializeNBT());
-		nbtTag.setTag(NBT_ROTATION, rotation.serializeNBT());
+	/**
+	 * Writes the state of this danmaku in a compact format, using registry ids
+	 * instead of names, and raw numbers instead of NBT tags.
+	 */
+	private void writeSaveData(ByteBuf buf) {
+		buf.writeByte(SAVE_VERSION);
+
+		//Saved even if the entity isn't loaded, so that it can still be found later
+		int flags = (user != null ? SAVE_HAS_USER : 0) | (source != null ? SAVE_HAS_SOURCE : 0);
+		buf.writeByte(flags);
+		if(user != null) {
+			writeUuid(buf, user.getUuid());
+		}
+		if(source != null) {
+			writeUuid(buf, source.getUuid());
+		}
 
 		ShotData shot = getShotData();
-		NBTTagCompound nbtShotData = shot.serializeNBT();
-		nbtTag.setTag(NBT_SHOT_DATA, nbtShotData);
-		nbtTag.setFloat(NBT_ROLL, getRoll());
+		ByteBufUtils.writeVarInt(buf, DanmakuRegistry.FORM.getId(shot.form()), 5);
+		buf.writeInt(shot.color());
+		buf.writeFloat(shot.damage());
+		buf.writeFloat(shot.sizeX());
+		buf.writeFloat(shot.sizeY());
+		buf.writeFloat(shot.sizeZ());
+		ByteBufUtils.writeVarInt(buf, shot.delay(), 5);
+		ByteBufUtils.writeVarInt(buf, shot.end(), 5);
+		ByteBufUtils.writeVarInt(buf, DanmakuRegistry.SUB_ENTITY.getId(shot.subEntity()), 5);
+
+		buf.writeFloat(getRoll());
+		ByteBufUtils.writeVarInt(buf, getTicksDelayed(), 5);
+		ByteBufUtils.writeVarInt(buf, ticksExisted, 5);
+		buf.writeLong(world.getTotalWorldTime());
+
+		writeVector(buf, angle);
+		buf.writeDouble(movement.getSpeedOriginal());
+		buf.writeDouble(movement.getLowerSpeedLimit());
+		buf.writeDouble(movement.getUpperSpeedLimit());
+		buf.writeDouble(movement.getSpeedAcceleration());
+		writeVector(buf, movement.getGravity());
+
+		buf.writeBoolean(rotation.isEnabled());
+		Quat quat = rotation.getRotationQuat();
+		buf.writeDouble(quat.x());
+		buf.writeDouble(quat.y());
+		buf.writeDouble(quat.z());
+		buf.writeDouble(quat.w());
+		ByteBufUtils.writeVarInt(buf, rotation.getEndTime(), 5);
+	}
+
+	/**
+	 * Reads the state written by {@link #writeSaveData(ByteBuf)}.
+	 */
+	private void readSaveData(ByteBuf buf) {
+		byte version = buf.readByte();
+		if(version != SAVE_VERSION) {
+			LogHelper.warn("Found danmaku saved with unknown version " + version + ". Removing it");
+			//Not in the world yet, so nothing else needs to know
+			isDead = true;
+			return;
+		}
+
+		int flags = buf.readByte();
+		user = (flags & SAVE_HAS_USER) != 0 ? new EntityReference<>(readUuid(buf), EntityLivingBase.class) : null;
+		source = (flags & SAVE_HAS_SOURCE) != 0 ? new EntityReference<>(readUuid(buf), Entity.class) : null;
+
+		Form form = DanmakuRegistry.FORM.getObjectById(ByteBufUtils.readVarInt(buf, 5));
+		if(form == null) {
+			LogHelper.warn("Found null form. Setting to default");
+			form = LibForms.SPHERE;
+		}
+		int color = buf.readInt();
+		float damage = buf.readFloat();
+		float sizeX = buf.readFloat();
+		float sizeY = buf.readFloat();
+		float sizeZ = buf.readFloat();
+		int delay = ByteBufUtils.readVarInt(buf, 5);
+		int end = ByteBufUtils.readVarInt(buf, 5);
+		SubEntityType subEntityType = DanmakuRegistry.SUB_ENTITY.getObjectById(ByteBufUtils.readVarInt(buf, 5));
+		if(subEntityType == null) {
+			LogHelper.warn("Found null subEntity type. Setting to default");
+			subEntityType = LibSubEntities.DEFAULT_TYPE;
+		}
+		setShotData(new ShotData(form, color, damage, sizeX, sizeY, sizeZ, delay, end, subEntityType));
+
+		setRoll(buf.readFloat());
+		ticksDelayed = ByteBufUtils.readVarInt(buf, 5);
+		ticksExisted = ByteBufUtils.readVarInt(buf, 5);
+		setUnloadedTicks(buf.readLong());
+
+		angle = readVector(buf);
+		movement = new MovementData(buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readDouble(), readVector(buf));
+		rotation = new RotationData(buf.readBoolean(), new Quat(buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readDouble()),
+				ByteBufUtils.readVarInt(buf, 5));
+	}
+
+	private static void writeUuid(ByteBuf buf, UUID uuid) {
+		buf.writeLong(uuid.getMostSignificantBits());
+		buf.writeLong(uuid.getLeastSignificantBits());
+	}
+
+	private static UUID readUuid(ByteBuf buf) {
+		return new UUID(buf.readLong(), buf.readLong());
+	}
+
+	private void setUnloadedTicks(long savedTime) {
+		long unloaded = world.getTotalWorldTime() - savedTime;
+		unloadedTicks = (int)Math.max(Math.min(unloaded, Integer.MAX_VALUE), 0);
 	}
 
 	@Override
 	public void readEntityFromNBT(NBTTagCompound nbtTag) {
+		if(nbtTag.hasKey(NBT_SAVE_DATA, Constants.NBT.TAG_BYTE_ARRAY)) {
+			readSaveData(Unpooled.wrappedBuffer(nbtTag.getByteArray(NBT_SAVE_DATA)));
+			return;
+		}
+
+		//Danmaku saved before the compact format was used
 		angle = NBTHelper.getVector(nbtTag, NBT_ANGLE);
 		movement = MovementData.fromNBT(nbtTag.getCompoundTag(NBT_MOVEMENT));
 		rotation = RotationData.fromNBT(nbtTag.getCompoundTag(NBT_ROTATION));
@@ -431,35 +1315,17 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 		setShotData(shot);
 
 		setRoll(nbtTag.getFloat(NBT_ROLL));
+		ticksDelayed = nbtTag.getInteger(NBT_TICKS_DELAYED);
+		ticksExisted = nbtTag.getInteger(NBT_TICKS_EXISTED);
+		if(nbtTag.hasKey(NBT_SAVED_TIME)) {
+			setUnloadedTicks(nbtTag.getLong(NBT_SAVED_TIME));
+		}
 
 		UUID userUUID = nbtTag.getUniqueId(NBT_USER_UUID);
-		if(userUUID != null) {
-			user = world.getPlayerEntityByUUID(userUUID);
-
-			if(user == null) {
-				Entity entity = getEntityByUUID(userUUID);
-				if(entity instanceof EntityLivingBase) {
-					user = (EntityLivingBase)entity;
-				}
-			}
-		}
+		user = userUUID == null ? null : new EntityReference<>(userUUID, EntityLivingBase.class);
 
 		UUID sourceUUID = nbtTag.getUniqueId(NBT_SOURCE_UUID);
-		if(sourceUUID != null) {
-			source = world.getPlayerEntityByUUID(sourceUUID);
-
-			if(source == null) {
-				source = getEntityByUUID(sourceUUID);
-			}
-		}
-	}
-
-	@Nullable
-	private Entity getEntityByUUID(UUID uuid) {
-		for(Entity entity : world.loadedEntityList) {
-			if(uuid.equals(entity.getUniqueID())) return entity;
-		}
-		return null;
+		source = sourceUUID == null ? null : new EntityReference<>(sourceUUID, Entity.class);
 	}
 
 	/**
@@ -488,37 +1354,8 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 	}
 
 	public void danmakuFinishBonus() {
-		ShotData shot = getShotData();
-		Vector3 pos = new Vector3(this);
-		//noinspection ConstantConditions
-		Optional<EntityLivingBase> target = getUser().flatMap(u -> {
-			DamageSource lastDamageSource = u.getLastDamageSource();
-
-			if(lastDamageSource != null) {
-				Entity sourceOfDamage = lastDamageSource.getEntity();
-				if(sourceOfDamage instanceof EntityLivingBase) {
-					return Optional.of((EntityLivingBase)sourceOfDamage);
-				}
-			}
-
-			return Optional.empty();
-		});
-		Vector3 angle = target.map(to -> Vector3.angleToEntity(this, to)).orElse(Vector3.Down());
-
-		if(shot.sizeZ() > shot.sizeX() * 1.5) {
-			double zPos = 0.0D;
-			while(zPos < shot.sizeZ()) {
-				Vector3 realPos = pos.offset(angle, zPos);
-
-				world.spawnEntityInWorld(TouhouHelper.createScoreGreen(world, target.orElse(null), realPos, angle));
-				zPos += 1.5D;
-			}
-			setDead();
-		}
-		else {
-			world.spawnEntityInWorld(TouhouHelper.createScoreGreen(world, target.orElse(null), pos, angle));
-			setDead();
-		}
+		DanmakuHelper.spawnFinishBonus(world, getUserEntity(), new Vector3(this), getShotData());
+		setDead();
 	}
 
 	@Override
@@ -546,11 +1383,79 @@ public class EntityDanmaku extends Entity implements IProjectile, IEntityAdditio
 		return rand;
 	}
 
+	/**
+	 * If this danmaku is frozen, either by itself, or by it's {@link FreezeGroup}.
+	 */
 	public boolean isFrozen() {
-		return frozen;
+		return frozen || (freezeGroup != null && freezeGroup.isFrozen());
 	}
 
 	public void setFrozen(boolean frozen) {
-		this.frozen = frozen;
+		if(this.frozen != frozen) {
+			this.frozen = frozen;
+			//Frozen danmaku aren't ticked, so the clients are told right away instead of in syncPrediction
+			if(!world.isRemote && predicted) {
+				DanmakuCorePacketHandler.sendToAllAround(new DanmakuCorrectionPacket.Message(this), new Vector3(this), 64D, dimension);
+			}
+		}
+	}
+
+	@Nullable
+	public FreezeGroup getFreezeGroup() {
+		return freezeGroup;
+	}
+
+	/**
+	 * Sets the group this danmaku is frozen together with. Should be set before
+	 * the danmaku is spawned, as it's only sent to the client then.
+	 */
+	public void setFreezeGroup(@Nullable FreezeGroup freezeGroup) {
+		this.freezeGroup = freezeGroup;
+	}
+
+	@Nullable
+	public DanmakuFormation getFormation() {
+		return formation;
+	}
+
+	/**
+	 * Where this danmaku is in it's formation, relative to the formation's
+	 * center when it's not rotated.
+	 */
+	public Vector3 getFormationOffset() {
+		return formationOffset;
+	}
+
+	/**
+	 * Makes this danmaku part of a formation. Should be set before the danmaku
+	 * is spawned, as it's only sent to the client then. The formation counts
+	 * it as a member once it joins the world.
+	 */
+	public void setFormation(@Nullable DanmakuFormation formation, Vector3 offset) {
+		this.formation = formation;
+		this.formationOffset = offset;
+	}
+
+	/**
+	 * Removes this danmaku from it's formation. It will keep moving in the direction of it's angle.
+	 */
+	@LogicalSideOnly(Side.SERVER)
+	public void leaveFormation() {
+		if(formation != null) {
+			formation.removeMember();
+			formation = null;
+			formationOffset = Vector3.Zero();
+		}
+	}
+
+	/**
+	 * Sets the motion so that this danmaku ends the tick at it's place in the formation.
+	 */
+	private void followFormation() {
+		//noinspection ConstantConditions
+		Vector3 target = formation.getMemberPos(formationOffset);
+		motionX = target.x() - posX;
+		motionY = target.y() - posY;
+		motionZ = target.z() - posZ;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.entity.danmaku;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.katsstuff.danmakucore.network.DanmakuCorePacketHandler;
+import net.katsstuff.danmakucore.network.FreezeGroupPacket;
+import net.minecraft.world.World;
+
+/**
+ * A frozen state shared by many danmaku, for example all the danmaku
+ * from a spellcard, or in an area. Freezing or unfreezing the group
+ * changes all the danmaku in it at once, without touching them.
+ */
+@SuppressWarnings("WeakerAccess")
+public class FreezeGroup {
+
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	private final World world;
+	private final int id;
+	private boolean frozen;
+
+	/**
+	 * Only used directly on the client. Use {@link #create(World)} on the server.
+	 */
+	public FreezeGroup(World world, int id) {
+		this.world = world;
+		this.id = id;
+	}
+
+	/**
+	 * Creates a new group that isn't frozen.
+	 */
+	public static FreezeGroup create(World world) {
+		return new FreezeGroup(world, NEXT_ID.getAndIncrement());
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Freezes or unfreezes all the danmaku in this group. On the server this
+	 * also tells the clients in the same dimension.
+	 */
+	public void setFrozen(boolean frozen) {
+		if(this.frozen != frozen) {
+			this.frozen = frozen;
+
+			if(!world.isRemote) {
+				DanmakuCorePacketHandler.INSTANCE.sendToDimension(new FreezeGroupPacket.Message(this), world.provider.getDimension());
+			}
+		}
+	}
+}
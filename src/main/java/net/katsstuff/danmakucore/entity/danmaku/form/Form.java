@@ -81,6 +81,16 @@ public abstract class Form extends RegistryValueItemStack<Form> {
 	 */
 	public void onTick(EntityDanmaku danmaku) {}
 
+	/**
+	 * If danmaku with this form can be simulated without an entity in the
+	 * {@link net.katsstuff.danmakucore.engine.DanmakuEngine}. Simulated danmaku don't
+	 * call {@link #onTick(EntityDanmaku)}, so only return true here if the form
+	 * doesn't do anything each tick.
+	 */
+	public boolean canBeSimulated() {
+		return false;
+	}
+
 	/**
 	 * Callback that is executed whenever {@link ShotData} is set on the underlying entity
 	 * @param oldShot The old shot
@@ -24,6 +24,17 @@ public abstract class SubEntityType extends RegistryValue<SubEntityType> impleme
 
 	public abstract SubEntity instantiate(World world, EntityDanmaku entityDanmaku);
 
+	/**
+	 * If danmaku with this subentity can be simulated without an entity in the
+	 * {@link net.katsstuff.danmakucore.engine.DanmakuEngine}. Only return true here if
+	 * the tick logic of the subentity is the same as
+	 * {@link net.katsstuff.danmakucore.impl.subentity.SubEntityTypeDefault.SubEntityDefault#subEntityTick()}.
+	 * The danmaku will be turned into an entity before it hits something.
+	 */
+	public boolean canBeSimulated() {
+		return false;
+	}
+
 	@Override
 	public String getUnlocalizedName() {
 		return "subentity." + getModId() + "." + getName();
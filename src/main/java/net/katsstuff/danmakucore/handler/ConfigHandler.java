@@ -9,6 +9,7 @@
 package net.katsstuff.danmakucore.handler;
 
 import net.katsstuff.danmakucore.EnumDanmakuLevel;
+import net.katsstuff.danmakucore.engine.DanmakuBudget;
 import net.katsstuff.danmakucore.lib.LibMod;
 import net.minecraftforge.common.config.Config;
 import net.minecraftforge.common.config.Config.Comment;
@@ -23,11 +24,37 @@ public class ConfigHandler {
 
 	public static class Danmaku {
 
+		@Comment("The max amount of danmaku a danmaku item can shoot at once")
 		public int danmakuMaxNumber = 32;
+		@Comment({"The max amount of danmaku that can be alive in a single world", "Set to 0 to disable"})
+		public int maxDanmakuPerWorld = 8192;
+		@Comment({"The max amount of danmaku a single user can have alive in a world", "Set to 0 to disable"})
+		public int maxDanmakuPerUser = 2048;
+		@Comment({"The max amount of danmaku that can be in a single chunk", "Set to 0 to disable"})
+		public int maxDanmakuPerChunk = 1024;
+		@Comment({"What to do when a new danmaku would go over one of the limits", "Allowed values:", "REJECT, EVICT_OLDEST, EVICT_FARTHEST"})
+		public DanmakuBudget.Policy limitPolicy = DanmakuBudget.Policy.REJECT;
+		@Comment({"How many dead danmaku to keep around per world, so that they can be used again instead of creating new ones",
+				"Mods that keep references to dead danmaku might see them come back, so this is off by default", "Set to 0 to disable"})
+		public int danmakuPoolSize = 0;
+		@Comment({"How many threads to use when computing the movement of simulated danmaku", "Set to 0 to use one less than the amount of processors"})
+		public int simulationThreads = 0;
 		public boolean oneHitKill = false;
 		@Comment({"Allowed values:", "PEACEFUL, EASY, NORMAL, HARD, LUNATIC, EXTRA, LAST_SPELL, LAST_WORD", "Anything above EXTRA is not guaranteed to work as well"})
 		public EnumDanmakuLevel danmakuLevel = EnumDanmakuLevel.NORMAL;
 		public boolean useComplexHitbox = true;
+		@Comment({"If danmaku that don't need an entity should be simulated without one", "They are turned into entities when they are about to hit something"})
+		public boolean simulateDanmaku = true;
+		@Comment({"If clients should run the same movement code as the server for danmaku", "The server then only sends corrections when the movement changes in unexpected ways", "Requires a restart"})
+		public boolean clientPrediction = false;
+		@Comment({"How far away from all players danmaku have to be before they are only ticked every 2 ticks", "Set to 0 to disable"})
+		public int halfTickRateDistance = 32;
+		@Comment({"How far away from all players danmaku have to be before they are only ticked every 4 ticks", "Set to 0 to disable"})
+		public int quarterTickRateDistance = 48;
+		@Comment({"How far away from all players danmaku have to be before they are only ticked every 8 ticks", "Set to 0 to disable"})
+		public int eighthTickRateDistance = 64;
+		@Comment({"If danmaku should be saved with the chunk they are in", "If false, danmaku are removed when their chunk unloads instead"})
+		public boolean saveDanmaku = true;
 	}
 
 	public static Entities entities = new Entities();
@@ -36,6 +63,11 @@ public class ConfigHandler {
 
 		@Comment("Currently not implemented")
 		public boolean circleBossBar = false;
+		@Comment({"How close score, power and other drops spawned in the same tick have to be to merge into one", "Set to 0 to disable"})
+		public double fallingDataMergeDistance = 2D;
+		@Comment({"The max amount of score, power and other drops in a single world",
+				"When reached, new drops are added to an older drop of the same type and target if there is one", "Set to 0 to disable"})
+		public int maxFallingDataPerWorld = 512;
 	}
 
 	public static class HUD {
@@ -0,0 +1,86 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.helper;
+
+/**
+ * Collision math on primitives, so that the danmaku tick doesn't have to
+ * create vectors and bounding boxes.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CollisionHelper {
+
+	/**
+	 * Same as the constant used in {@link net.minecraft.util.math.Vec3d#getIntermediateWithXValue(net.minecraft.util.math.Vec3d, double)}.
+	 */
+	private static final double PARALLEL_EPSILON = 1.0000000116860974E-7D;
+
+	/**
+	 * Does the same as {@link net.minecraft.util.math.AxisAlignedBB#calculateIntercept(net.minecraft.util.math.Vec3d, net.minecraft.util.math.Vec3d)},
+	 * but returns the squared distance from the start to the intercept, or -1 if the segment doesn't intercept the box.
+	 */
+	public static double interceptDistanceSq(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double startX,
+			double startY, double startZ, double endX, double endY, double endZ) {
+		double dx = endX - startX;
+		double dy = endY - startY;
+		double dz = endZ - startZ;
+
+		double closest = -1D;
+		closest = closest(closest, planeX(minX, minY, minZ, maxY, maxZ, startX, startY, startZ, dx, dy, dz));
+		closest = closest(closest, planeX(maxX, minY, minZ, maxY, maxZ, startX, startY, startZ, dx, dy, dz));
+		closest = closest(closest, planeY(minY, minX, minZ, maxX, maxZ, startX, startY, startZ, dx, dy, dz));
+		closest = closest(closest, planeY(maxY, minX, minZ, maxX, maxZ, startX, startY, startZ, dx, dy, dz));
+		closest = closest(closest, planeZ(minZ, minX, minY, maxX, maxY, startX, startY, startZ, dx, dy, dz));
+		closest = closest(closest, planeZ(maxZ, minX, minY, maxX, maxY, startX, startY, startZ, dx, dy, dz));
+		return closest;
+	}
+
+	private static double closest(double current, double candidate) {
+		return candidate >= 0D && (current < 0D || candidate < current) ? candidate : current;
+	}
+
+	private static double planeX(double x, double minY, double minZ, double maxY, double maxZ, double startX, double startY, double startZ,
+			double dx, double dy, double dz) {
+		if(dx * dx < PARALLEL_EPSILON) return -1D;
+
+		double t = (x - startX) / dx;
+		if(t < 0D || t > 1D) return -1D;
+
+		double y = startY + dy * t;
+		double z = startZ + dz * t;
+		return y >= minY && y <= maxY && z >= minZ && z <= maxZ ? distanceSq(startX + dx * t - startX, y - startY, z - startZ) : -1D;
+	}
+
+	private static double planeY(double y, double minX, double minZ, double maxX, double maxZ, double startX, double startY, double startZ,
+			double dx, double dy, double dz) {
+		if(dy * dy < PARALLEL_EPSILON) return -1D;
+
+		double t = (y - startY) / dy;
+		if(t < 0D || t > 1D) return -1D;
+
+		double x = startX + dx * t;
+		double z = startZ + dz * t;
+		return x >= minX && x <= maxX && z >= minZ && z <= maxZ ? distanceSq(x - startX, startY + dy * t - startY, z - startZ) : -1D;
+	}
+
+	private static double planeZ(double z, double minX, double minY, double maxX, double maxY, double startX, double startY, double startZ,
+			double dx, double dy, double dz) {
+		if(dz * dz < PARALLEL_EPSILON) return -1D;
+
+		double t = (z - startZ) / dz;
+		if(t < 0D || t > 1D) return -1D;
+
+		double x = startX + dx * t;
+		double y = startY + dy * t;
+		return x >= minX && x <= maxX && y >= minY && y <= maxY ? distanceSq(x - startX, y - startY, startZ + dz * t - startZ) : -1D;
+	}
+
+	private static double distanceSq(double dx, double dy, double dz) {
+		return dx * dx + dy * dy + dz * dz;
+	}
+}
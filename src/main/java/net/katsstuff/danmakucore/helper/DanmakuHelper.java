@@ -8,15 +8,20 @@
  */
 package net.katsstuff.danmakucore.helper;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Predicate;
 
 import javax.annotation.Nullable;
 
 import net.katsstuff.danmakucore.EnumDanmakuLevel;
 import net.katsstuff.danmakucore.capability.IDanmakuCoreData;
+import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuIndex;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.katsstuff.danmakucore.entity.danmaku.DamageSourceDanmaku;
 import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.entity.living.IAllyDanmaku;
@@ -26,8 +31,10 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.SoundEvents;
+import net.minecraft.util.DamageSource;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.SoundCategory;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.world.World;
 
 @SuppressWarnings({"unused", "WeakerAccess"})
@@ -101,7 +108,8 @@ public class DanmakuHelper {
 	}
 
 	/**
-	 * Remove danmaku in the specific area
+	 * Remove danmaku in the specific area. On the server, the same removal
+	 * is only done once each tick for the same center entity and mode.
 	 * @param centerEntity Where to center the removal around
 	 * @param range The range to remove in
 	 * @param mode What should be removed and what should be left behind
@@ -110,45 +118,119 @@ public class DanmakuHelper {
 	 */
 	@SuppressWarnings("SameParameterValue")
 	public static int danmakuRemove(Entity centerEntity, double range, DanmakuRemoveMode mode, boolean dropBonus) {
+		World world = centerEntity.world;
+		AxisAlignedBB box = centerEntity.getEntityBoundingBox().expandXyz(range);
+		Predicate<EntityLivingBase> userFilter = user -> shouldRemove(user, centerEntity, mode);
+
 		int count = 0;
-		List<EntityDanmaku> list = centerEntity.world.getEntitiesWithinAABB(EntityDanmaku.class,
-				centerEntity.getEntityBoundingBox().expandXyz(range), entity -> entity != centerEntity);
+		List<EntityDanmaku> list;
+		if(world.isRemote) {
+			list = world.getEntitiesWithinAABB(EntityDanmaku.class, box, entity -> entity != centerEntity);
+		}
+		else {
+			DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+			DanmakuIndex index = danmakuWorld.getIndex();
+			if(!index.markCleared(centerEntity, mode)) return 0;
+
+			list = index.query(box, getRemovedCategories(mode));
+			count += danmakuWorld.getEngine().removeInBox(box, userFilter, dropBonus);
+		}
 
 		for(EntityDanmaku entity : list) {
 			Optional<EntityLivingBase> optUser = entity.getUser();
-			if(optUser.isPresent()) {
-				EntityLivingBase user = optUser.get();
-				switch(mode) {
-					case ALL:
-						finishOrKillDanmaku(entity, dropBonus);
-						count++;
-						break;
-					case ENEMY:
-						if(!(user instanceof EntityPlayer)) {
-							finishOrKillDanmaku(entity, dropBonus);
-							count++;
-						}
-						break;
-					case PLAYER:
-						if(user instanceof EntityPlayer) {
-							finishOrKillDanmaku(entity, dropBonus);
-							count++;
-						}
-						break;
-					case OTHER:
-						if(user != centerEntity) {
-							finishOrKillDanmaku(entity, dropBonus);
-							count++;
-						}
-						break;
-					default:
-						break;
-				}
+			if(optUser.isPresent() && userFilter.test(optUser.get())) {
+				finishOrKillDanmaku(entity, dropBonus);
+				count++;
 			}
 		}
 		return count;
 	}
 
+	private static boolean shouldRemove(EntityLivingBase user, Entity centerEntity, DanmakuRemoveMode mode) {
+		switch(mode) {
+			case ALL:
+				return true;
+			case ENEMY:
+				return !(user instanceof EntityPlayer);
+			case PLAYER:
+				return user instanceof EntityPlayer;
+			case OTHER:
+				return user != centerEntity;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Gets the categories in the {@link DanmakuIndex} that a removal mode can remove.
+	 * Danmaku without a user are never removed.
+	 */
+	public static EnumSet<DanmakuIndex.Category> getRemovedCategories(DanmakuRemoveMode mode) {
+		switch(mode) {
+			case ENEMY:
+				return EnumSet.of(DanmakuIndex.Category.ENEMY);
+			case PLAYER:
+				return EnumSet.of(DanmakuIndex.Category.PLAYER);
+			default:
+				return EnumSet.of(DanmakuIndex.Category.PLAYER, DanmakuIndex.Category.ENEMY);
+		}
+	}
+
+	/**
+	 * Finds the danmaku entities in the specific area that a removal would remove, without removing them.
+	 * Only finds danmaku entities, not simulated danmaku.
+	 * @param centerEntity Where to center the search around
+	 * @param range The range to search in
+	 * @param mode What danmaku to find
+	 */
+	public static List<EntityDanmaku> findDanmaku(Entity centerEntity, double range, DanmakuRemoveMode mode) {
+		World world = centerEntity.world;
+		AxisAlignedBB box = centerEntity.getEntityBoundingBox().expandXyz(range);
+		Predicate<EntityDanmaku> filter = entity -> entity.getUser().map(user -> shouldRemove(user, centerEntity, mode)).orElse(false);
+		if(world.isRemote) {
+			return world.getEntitiesWithinAABB(EntityDanmaku.class, box, filter::test);
+		}
+
+		return DanmakuWorld.get(world).getIndex().query(box, getRemovedCategories(mode), filter);
+	}
+
+	/**
+	 * Spawns the bonus a danmaku leaves behind when it's removed, directed
+	 * at whatever last hurt the user.
+	 * @param user The user of the danmaku
+	 * @param pos The position of the danmaku
+	 * @param shot The shot of the danmaku
+	 */
+	public static void spawnFinishBonus(World world, @Nullable EntityLivingBase user, Vector3 pos, ShotData shot) {
+		//noinspection ConstantConditions
+		Optional<EntityLivingBase> target = Optional.ofNullable(user).flatMap(u -> {
+			DamageSource lastDamageSource = u.getLastDamageSource();
+
+			if(lastDamageSource != null) {
+				Entity sourceOfDamage = lastDamageSource.getEntity();
+				if(sourceOfDamage instanceof EntityLivingBase) {
+					return Optional.of((EntityLivingBase)sourceOfDamage);
+				}
+			}
+
+			return Optional.empty();
+		});
+		Vector3 angle = target.map(to -> Vector3.angleToEntity(pos, to)).orElse(Vector3.Down());
+
+		if(shot.sizeZ() > shot.sizeX() * 1.5) {
+			double zPos = 0.0D;
+			while(zPos < shot.sizeZ()) {
+				Vector3 realPos = pos.offset(angle, zPos);
+
+				world.spawnEntityInWorld(TouhouHelper.createScoreGreen(world, target.orElse(null), realPos, angle));
+				zPos += 1.5D;
+			}
+		}
+		else {
+			world.spawnEntityInWorld(TouhouHelper.createScoreGreen(world, target.orElse(null), pos, angle));
+		}
+	}
+
 	private static void finishOrKillDanmaku(EntityDanmaku entity, boolean dropBonus) {
 		if(dropBonus) {
 			entity.danmakuFinishBonus();
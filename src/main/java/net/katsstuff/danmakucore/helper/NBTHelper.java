@@ -14,6 +14,7 @@ import java.util.UUID;
 
 import net.katsstuff.danmakucore.data.AbstractVector3;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagDouble;
@@ -56,6 +57,11 @@ public class NBTHelper {
 	}
 
 	public static Optional<Entity> getEntityByUUID(UUID uuid, World world) {
+		//The server keeps an index of the entities, so we only need to look through them all on the client
+		if(!world.isRemote) {
+			return Optional.ofNullable(DanmakuWorld.get(world).getEntityIndex().get(uuid));
+		}
+
 		List<Entity> entityList = world.loadedEntityList;
 
 		for(Entity entity : entityList) {
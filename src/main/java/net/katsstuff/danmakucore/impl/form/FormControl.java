@@ -22,6 +22,11 @@ public class FormControl extends FormGeneric {
 		super(LibFormName.CONTROL);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
@@ -32,6 +32,11 @@ public class FormCrystal1 extends FormGeneric {
 		super(LibFormName.CRYSTAL1);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
@@ -32,6 +32,11 @@ public class FormCrystal2 extends FormGeneric {
 		super(LibFormName.CRYSTAL2);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
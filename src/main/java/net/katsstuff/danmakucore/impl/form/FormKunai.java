@@ -32,6 +32,11 @@ public class FormKunai extends FormGeneric {
 		super(LibFormName.KUNAI);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@Override
 	public ResourceLocation getTexture(EntityDanmaku danmaku) {
 		return texture;
@@ -28,6 +28,11 @@ public class FormPellet extends FormGeneric {
 		super(LibFormName.PELLET);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
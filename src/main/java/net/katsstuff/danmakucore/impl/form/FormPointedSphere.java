@@ -29,6 +29,11 @@ public class FormPointedSphere extends FormGeneric {
 		super(LibFormName.SPHERE_POINTED);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
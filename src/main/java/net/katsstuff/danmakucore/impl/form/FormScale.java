@@ -30,6 +30,11 @@ public class FormScale extends FormGeneric {
 		super(LibFormName.SCALE);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
@@ -27,6 +27,11 @@ public class FormSphere extends FormGeneric {
 		super(LibFormName.DEFAULT);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
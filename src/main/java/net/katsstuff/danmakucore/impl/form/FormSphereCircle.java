@@ -26,6 +26,11 @@ public class FormSphereCircle extends FormGeneric {
 		super(LibFormName.CIRCLE);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
@@ -26,6 +26,11 @@ public class FormSphereDark extends FormGeneric {
 		super(LibFormName.SPHERE_DARK);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
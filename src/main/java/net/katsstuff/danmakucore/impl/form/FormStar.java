@@ -28,6 +28,11 @@ public class FormStar extends FormGeneric {
 		super(LibFormName.STAR);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("Convert2Lambda")
 	@Override
 	@SideOnly(Side.CLIENT)
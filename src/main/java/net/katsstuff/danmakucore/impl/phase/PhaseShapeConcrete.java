@@ -12,6 +12,7 @@ import net.katsstuff.danmakucore.data.MovementData;
 import net.katsstuff.danmakucore.data.RotationData;
 import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.katsstuff.danmakucore.entity.living.EntityDanmakuMob;
 import net.katsstuff.danmakucore.entity.living.phase.Phase;
 import net.katsstuff.danmakucore.entity.living.phase.PhaseManager;
@@ -62,7 +63,7 @@ public abstract class PhaseShapeConcrete extends Phase {
 		EntityLivingBase target = entity.getAttackTarget();
 
 		if(!isFrozen() && isCounterStart() && target != null && entity.getEntitySenses().canSee(target)) {
-			shape.drawForTick(new Vector3(entity), Vector3.angleToEntity(entity, target), 0);
+			shape.draw(new Vector3(entity), Vector3.angleToEntity(entity, target), 0, DanmakuWorld.get(entity.world).getSpawnBatch());
 		}
 	}
 
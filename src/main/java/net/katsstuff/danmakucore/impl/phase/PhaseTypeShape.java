@@ -8,16 +8,13 @@
  */
 package net.katsstuff.danmakucore.impl.phase;
 
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.katsstuff.danmakucore.entity.living.EntityDanmakuMob;
 import net.katsstuff.danmakucore.entity.living.phase.Phase;
 import net.katsstuff.danmakucore.entity.living.phase.PhaseManager;
 import net.katsstuff.danmakucore.entity.living.phase.PhaseType;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
 
 public class PhaseTypeShape {
 
@@ -61,9 +58,9 @@ public class PhaseTypeShape {
 			if(isCounterStart()) {
 				EntityDanmakuMob danmakuMob = getEntity();
 
-				Tuple<Boolean, Set<EntityDanmaku>> done = shape.drawForTick(new Vector3(danmakuMob), Vector3.angleEntity(danmakuMob), counter);
+				boolean done = shape.draw(new Vector3(danmakuMob), Vector3.angleEntity(danmakuMob), counter, DanmakuWorld.get(danmakuMob.world).getSpawnBatch());
 
-				if(continuous && done.getFirst()) {
+				if(continuous && done) {
 					counter = 0;
 				}
 			}
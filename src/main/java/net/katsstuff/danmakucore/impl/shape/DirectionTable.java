@@ -0,0 +1,176 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.impl.shape;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import net.katsstuff.danmakucore.data.Vector3;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * The angles a shape rotates it's danmaku by, together with the sine and
+ * cosine terms of each rotation. Shapes are often drawn many times with the
+ * same parameters, so the tables are cached, and each danmaku is then placed
+ * with a few multiplications instead of creating a new quaternion.
+ *
+ * The rotations give the same result as {@link Vector3#rotateRad(double, net.katsstuff.danmakucore.data.AbstractVector3)}.
+ */
+final class DirectionTable {
+
+	private static final int MAX_CACHED = 256;
+
+	private static final Map<Key, DirectionTable> CACHE = new LinkedHashMap<Key, DirectionTable>(16, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, DirectionTable> eldest) {
+			return size() > MAX_CACHED;
+		}
+	};
+
+	private final double[] angles;
+	private final double[] cos;
+	private final double[] sin;
+	private final double[] versine;
+
+	/**
+	 * @param angles The angles as the shape uses them, for example for the roll.
+	 * @param radians The angles to rotate by.
+	 */
+	private DirectionTable(double[] angles, double[] radians) {
+		this.angles = angles;
+		cos = new double[radians.length];
+		sin = new double[radians.length];
+		versine = new double[radians.length];
+
+		for(int i = 0; i < radians.length; i++) {
+			//The same precision as the quaternion created by Quat.fromVectorRad
+			float halfAngle = (float)(radians[i] * 0.5D);
+			double sinHalf = MathHelper.sin(halfAngle);
+			double cosHalf = MathHelper.cos(halfAngle);
+			cos[i] = 2D * cosHalf * cosHalf - 1D;
+			sin[i] = 2D * cosHalf * sinHalf;
+			versine[i] = 2D * sinHalf * sinHalf;
+		}
+	}
+
+	/**
+	 * The rotations used by {@link ShapeWideShot}.
+	 */
+	static DirectionTable wideShot(int amount, float wideAngle, float baseAngle) {
+		return get(new Key(ShapeWideShot.class, amount, wideAngle, baseAngle), () -> {
+			double[] angles = new double[Math.max(amount, 0)];
+			double rotateAngle = Math.toRadians(-wideAngle / 2F);
+			double stepSize = Math.toRadians(wideAngle / (amount - 1));
+			rotateAngle += Math.toRadians(baseAngle);
+
+			for(int i = 0; i < angles.length; i++) {
+				angles[i] = rotateAngle;
+				rotateAngle += stepSize;
+			}
+
+			return new DirectionTable(angles, angles);
+		});
+	}
+
+	/**
+	 * The rotations used by {@link ShapeRing}.
+	 */
+	static DirectionTable ring(int amount, float baseAngle) {
+		return get(new Key(ShapeRing.class, amount, 0F, baseAngle), () -> {
+			double[] angles = new double[Math.max(amount, 0)];
+			double[] radians = new double[angles.length];
+			double rotationAngle = Math.toRadians(baseAngle);
+			float stepSize = 360F / amount;
+
+			for(int i = 0; i < angles.length; i++) {
+				angles[i] = rotationAngle;
+				//The ring rotates in degrees
+				radians[i] = Math.toRadians(rotationAngle);
+				rotationAngle += stepSize;
+			}
+
+			return new DirectionTable(angles, radians);
+		});
+	}
+
+	private static DirectionTable get(Key key, Supplier<DirectionTable> create) {
+		synchronized(CACHE) {
+			DirectionTable table = CACHE.get(key);
+			if(table == null) {
+				table = create.get();
+				CACHE.put(key, table);
+			}
+
+			return table;
+		}
+	}
+
+	int size() {
+		return angles.length;
+	}
+
+	double getAngle(int i) {
+		return angles[i];
+	}
+
+	/**
+	 * Rotates the vector of an axis by the rotation at an index.
+	 */
+	Vector3 rotate(int i, Axis axis) {
+		return axis.vec.multiply(cos[i]).subtract(axis.cross.multiply(sin[i])).add(axis.projection.multiply(versine[i]));
+	}
+
+	/**
+	 * A vector to rotate around an axis, with the parts of the rotation that
+	 * don't depend on the angle computed up front. Created once per draw.
+	 */
+	static class Axis {
+
+		private final Vector3 vec;
+		private final Vector3 cross;
+		private final Vector3 projection;
+
+		Axis(Vector3 vec, Vector3 axis) {
+			this.vec = vec;
+			cross = axis.cross(vec);
+			projection = axis.multiply(axis.dot(vec));
+		}
+	}
+
+	private static class Key {
+
+		private final Class<?> shape;
+		private final int amount;
+		private final float first;
+		private final float second;
+
+		private Key(Class<?> shape, int amount, float first, float second) {
+			this.shape = shape;
+			this.amount = amount;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+
+			Key key = (Key)o;
+			return amount == key.amount && Float.compare(key.first, first) == 0 && Float.compare(key.second, second) == 0 && shape == key.shape;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(shape, amount, first, second);
+		}
+	}
+}
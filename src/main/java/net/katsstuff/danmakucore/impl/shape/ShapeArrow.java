@@ -8,14 +8,10 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 @SuppressWarnings("unused")
 public class ShapeArrow implements IShape {
@@ -24,7 +20,6 @@ public class ShapeArrow implements IShape {
 	private final double distance;
 	private final double width;
 	private final DanmakuTemplate danmaku;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
 	/**
 	 * Creates a {@link ShapeArrow}
@@ -41,7 +36,7 @@ public class ShapeArrow implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(!danmaku.world.isRemote) {
 			Vector3 rotationVec = Vector3.fromSpherical(angle.yaw(), angle.pitch() + 90);
 			Vector3 leftVec = angle.rotate(-90D, rotationVec);
@@ -54,16 +49,12 @@ public class ShapeArrow implements IShape {
 				Vector3 newPosNeutral = pos.offset(angle, newDistance);
 
 				danmaku.pos = newPosNeutral.offset(leftVec, newWidth);
-				EntityDanmaku createdLeft = danmaku.asEntity();
-				danmaku.world.spawnEntityInWorld(createdLeft);
-				set.add(createdLeft);
+				sink.accept(danmaku);
 
 				danmaku.pos = newPosNeutral.offset(rightVec, newWidth);
-				EntityDanmaku createdRight = danmaku.asEntity();
-				danmaku.world.spawnEntityInWorld(createdRight);
-				set.add(createdRight);
+				sink.accept(danmaku);
 			}
 		}
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
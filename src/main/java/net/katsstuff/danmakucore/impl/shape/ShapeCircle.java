@@ -8,13 +8,10 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 public class ShapeCircle implements IShape {
 
@@ -31,11 +28,12 @@ public class ShapeCircle implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(amount % 2 == 0) {
-			baseAngle += 360F / (amount * 2F);
+			//Kept within a full turn so that the directions can be cached
+			baseAngle = (baseAngle + 360F / (amount * 2F)) % 360F;
 		}
 		ShapeWideShot shape = new ShapeWideShot(danmaku, amount, 360F - 360F / amount, baseAngle, distance);
-		return shape.drawForTick(pos, angle, tick);
+		return shape.draw(pos, angle, tick, sink);
 	}
 }
@@ -9,13 +9,10 @@
 package net.katsstuff.danmakucore.impl.shape;
 
 import java.util.Arrays;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import net.katsstuff.danmakucore.data.Vector3;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 @SuppressWarnings("unused")
 public class ShapeCombined implements IShape {
@@ -27,13 +24,15 @@ public class ShapeCombined implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
-		Set<Tuple<Boolean, Set<EntityDanmaku>>> ret = Arrays.stream(shapes).map(s -> s.drawForTick(pos, angle, tick)).collect(Collectors.toSet());
-		boolean done = ret.stream().allMatch(Tuple::getFirst);
-		Set<EntityDanmaku> drawn = ret.stream()
-				.flatMap(t -> t.getSecond().stream())
-				.collect(Collectors.toSet());
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
+		boolean done = true;
+		//Every shape is drawn, even after one that isn't done
+		for(IShape shape : shapes) {
+			if(!shape.draw(pos, angle, tick, sink)) {
+				done = false;
+			}
+		}
 
-		return new Tuple<>(done, drawn);
+		return done;
 	}
 }
@@ -8,19 +8,14 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.Set;
-
-import com.google.common.collect.ImmutableSet;
-
 import net.katsstuff.danmakucore.data.Vector3;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 public class ShapeEmpty implements IShape {
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
-		return new Tuple<>(true, ImmutableSet.of());
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
+		return true;
 	}
 }
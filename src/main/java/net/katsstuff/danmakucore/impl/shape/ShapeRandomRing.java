@@ -8,15 +8,12 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
 import java.util.Random;
-import java.util.Set;
 
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 public class ShapeRandomRing implements IShape {
 
@@ -24,7 +21,6 @@ public class ShapeRandomRing implements IShape {
 	private final int amount;
 	private final float radius;
 	private final double distance;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
 	public ShapeRandomRing(DanmakuTemplate danmaku, int amount, float radius, double distance) {
 		this.danmaku = danmaku;
@@ -34,7 +30,7 @@ public class ShapeRandomRing implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(!danmaku.world.isRemote) {
 			double yaw = angle.yaw();
 			double pitch = angle.pitch();
@@ -51,11 +47,9 @@ public class ShapeRandomRing implements IShape {
 				danmaku.roll = (float)rotationAngle;
 				danmaku.rotation = danmaku.rotation.setRotationVec(angle);
 
-				EntityDanmaku spawned = danmaku.asEntity();
-				set.add(spawned);
-				danmaku.world.spawnEntityInWorld(spawned);
+				sink.accept(danmaku);
 			}
 		}
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
\ No newline at end of file
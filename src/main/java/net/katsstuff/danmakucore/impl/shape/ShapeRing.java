@@ -8,14 +8,10 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 public class ShapeRing implements IShape {
 
@@ -24,7 +20,6 @@ public class ShapeRing implements IShape {
 	private final float radius;
 	private final float baseAngle;
 	private final double distance;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
 	public ShapeRing(DanmakuTemplate danmaku, int amount, float radius, float baseAngle, double distance) {
 		this.danmaku = danmaku;
@@ -35,7 +30,7 @@ public class ShapeRing implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(!danmaku.world.isRemote) {
 			double yaw = angle.yaw();
 			double pitch = angle.pitch();
@@ -43,25 +38,24 @@ public class ShapeRing implements IShape {
 			Vector3 radiusRotateVec = Vector3.fromSpherical(yaw, pitch + radius + 90F);
 			Vector3 rotateVec = Vector3.fromSpherical(yaw, pitch + 90F);
 
-			double rotationAngle = Math.toRadians(baseAngle);
-			float stepSize = 360F / amount;
+			DirectionTable table = DirectionTable.ring(amount, baseAngle);
+			DirectionTable.Axis radiusAxis = new DirectionTable.Axis(angle, radiusVec);
+			DirectionTable.Axis rotateAxis = new DirectionTable.Axis(angle, rotateVec);
+			DirectionTable.Axis radiusRotateAxis = new DirectionTable.Axis(angle, radiusRotateVec);
 
-			for(int i = 0; i < amount; i++) {
-				Vector3 angleVec = angle.rotate(rotationAngle, radiusVec);
-				Vector3 distanceVec = angle.rotate(rotationAngle, rotateVec);
-				Vector3 rotationVec = angle.rotate(rotationAngle, radiusRotateVec);
+			for(int i = 0; i < table.size(); i++) {
+				Vector3 angleVec = table.rotate(i, radiusAxis);
+				Vector3 distanceVec = table.rotate(i, rotateAxis);
+				Vector3 rotationVec = table.rotate(i, radiusRotateAxis);
 
 				danmaku.pos = pos.offset(distanceVec, distance);
 				danmaku.angle = angleVec;
-				danmaku.roll = (float)rotationAngle;
+				danmaku.roll = (float)table.getAngle(i);
 				danmaku.rotation = danmaku.rotation.setRotationVec(rotationVec);
 
-				EntityDanmaku spawned = danmaku.asEntity();
-				danmaku.world.spawnEntityInWorld(spawned);
-				set.add(spawned);
-				rotationAngle += stepSize;
+				sink.accept(danmaku);
 			}
 		}
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
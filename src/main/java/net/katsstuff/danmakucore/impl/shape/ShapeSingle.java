@@ -9,32 +9,25 @@
 
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 @SuppressWarnings("unused")
 public class ShapeSingle implements IShape {
 
 	private final DanmakuTemplate danmaku;
-	private final Set<EntityDanmaku> set = new HashSet<>(1);
 
 	public ShapeSingle(DanmakuTemplate danmaku) {
 		this.danmaku = danmaku;
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(!danmaku.world.isRemote) {
-			EntityDanmaku created = danmaku.asEntity();
-			set.add(created);
-			danmaku.world.spawnEntityInWorld(created);
+			sink.accept(danmaku);
 		}
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
@@ -8,15 +8,14 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
+/**
+ * Fires danmaku in all directions, evenly spread out over a sphere.
+ */
 public class ShapeSphere implements IShape {
 
 	private final DanmakuTemplate danmaku;
@@ -24,8 +23,15 @@ public class ShapeSphere implements IShape {
 	private final int bands;
 	private final float baseAngle;
 	private final double distance;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
+	/**
+	 * Creates a {@link ShapeSphere}
+	 * @param danmaku The danmaku to use
+	 * @param rings How many rings of danmaku there are between the two poles of the sphere.
+	 * @param bands How many danmaku there are in the middle ring. The other rings have fewer.
+	 * @param baseAngle How much the rings are turned around the poles.
+	 * @param distance How far away from the center the danmaku spawn.
+	 */
 	public ShapeSphere(DanmakuTemplate danmaku, int rings, int bands, float baseAngle, double distance) {
 		this.danmaku = danmaku;
 		this.rings = rings;
@@ -35,17 +41,33 @@ public class ShapeSphere implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(!danmaku.world.isRemote) {
-			Vector3 rotateVec = Vector3.fromSpherical(angle.yaw(), angle.pitch() + 90); //TODO: How do do this without relying on yaw and pitch?
-			/*
-			for(int i = 0; i < bands; i++) {
-				ShapeWideShot shape = new ShapeWideShot(danmaku, rings, 360F, baseAngle, distance);
-				set.addAll(shape.drawForTick(pos, angle.rotate(360F / i, rotateVec), tick).getSecond());
+			SphereLayout layout = SphereLayout.get(rings, bands);
+
+			//The frame the layout is rotated into. The first pole points in the direction of the angle
+			Vector3 forward = angle.normalize();
+			//Any axis works as long as it isn't parallel to the angle
+			Vector3 axis = Math.abs(forward.y()) < 0.99D ? Vector3.Up() : Vector3.South();
+			Vector3 up = axis.subtract(forward.multiply(forward.dot(axis))).normalize();
+			Vector3 side = forward.cross(up);
+
+			//Turns the rings around the poles by the base angle
+			double base = Math.toRadians(baseAngle);
+			double cos = Math.cos(base);
+			double sin = Math.sin(base);
+			Vector3 baseUp = up.multiply(cos).add(side.multiply(sin));
+			Vector3 baseSide = side.multiply(cos).subtract(up.multiply(sin));
+
+			for(int i = 0; i < layout.size(); i++) {
+				Vector3 angleVec = forward.multiply(layout.getX(i)).add(baseUp.multiply(layout.getY(i))).add(baseSide.multiply(layout.getZ(i)));
+
+				danmaku.pos = pos.offset(angleVec, distance);
+				danmaku.angle = angleVec;
+				sink.accept(danmaku);
 			}
-			*/
 		}
 
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
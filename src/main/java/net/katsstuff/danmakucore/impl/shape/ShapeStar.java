@@ -8,14 +8,10 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 
 public class ShapeStar implements IShape {
 
@@ -40,7 +36,6 @@ public class ShapeStar implements IShape {
 	private final float angleZ;
 	private final float baseAngle;
 	private final double distance;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
 	public ShapeStar(DanmakuTemplate danmaku, int amount, float angleZ, float baseAngle, double distance) {
 		this.danmaku = danmaku;
@@ -51,8 +46,8 @@ public class ShapeStar implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
-		if(amount >= WAYS.length) return new Tuple<>(true, set);
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
+		if(amount >= WAYS.length) return true;
 		if(!danmaku.world.isRemote) {
 			Vector3 angleNegative = angle.negate();
 			Vector3 frontPos = pos.offset(angle, distance);
@@ -68,36 +63,31 @@ public class ShapeStar implements IShape {
 
 			danmaku.roll = angleZ;
 
-
 			for(int i = 0; i < WAYS[amount].length; i++) {
 				if(WAYS[amount][i] == 1) {
 					if(!flagFB) {
 						danmaku.pos = frontPos;
 						danmaku.angle = angle;
-						EntityDanmaku spawned = danmaku.asEntity();
-						set.add(spawned);
-						danmaku.world.spawnEntityInWorld(spawned);
+						sink.accept(danmaku);
 						flagFB = true;
 					}
 					else {
 						danmaku.pos = backPos;
 						danmaku.angle = angleNegative;
-						EntityDanmaku spawned = danmaku.asEntity();
-						set.add(spawned);
-						danmaku.world.spawnEntityInWorld(spawned);
+						sink.accept(danmaku);
 					}
 				}
 				else {
 					danmaku.pos = pos;
 					danmaku.angle = angle;
 					ShapeRing shape = new ShapeRing(danmaku, WAYS[amount][i], angleBase, baseAngle + slope, distance);
-					set.addAll(shape.drawForTick(pos, angle, 0).getSecond());
+					shape.draw(pos, angle, 0, sink);
 					slope += 180F / WAYS[amount].length;
 				}
 
 				angleBase += angleSpan;
 			}
 		}
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
@@ -8,13 +8,9 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 import net.minecraft.world.World;
 
 public class ShapeWideComposite implements IShape {
@@ -25,7 +21,6 @@ public class ShapeWideComposite implements IShape {
 	private final float wideAngle;
 	private final float baseAngle;
 	private final double distance;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
 	public ShapeWideComposite(World world, IShape shape, int amount, float wideAngle, float baseAngle, double distance) {
 		this.world = world;
@@ -37,7 +32,7 @@ public class ShapeWideComposite implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		boolean done = true;
 
 		if(!world.isRemote) {
@@ -50,16 +45,13 @@ public class ShapeWideComposite implements IShape {
 			for(int i = 0; i < amount; i++) {
 				Vector3 angleVec = angle.rotateRad(rotateAngle, rotateVec);
 
-				Tuple<Boolean, Set<EntityDanmaku>> result = shape.drawForTick(pos.offset(angleVec, distance), angleVec, tick);
-
-				set.addAll(result.getSecond());
-				if(!result.getFirst()) {
+				if(!shape.draw(pos.offset(angleVec, distance), angleVec, tick, sink)) {
 					done = false;
 				}
 				rotateAngle += stepSize;
 			}
 		}
 
-		return new Tuple<>(done, set);
+		return done;
 	}
 }
@@ -8,14 +8,10 @@
  */
 package net.katsstuff.danmakucore.impl.shape;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.shape.IShape;
-import net.minecraft.util.Tuple;
+import net.katsstuff.danmakucore.shape.IShapeSink;
 import net.minecraft.util.math.MathHelper;
 
 public class ShapeWideShot implements IShape {
@@ -25,7 +21,6 @@ public class ShapeWideShot implements IShape {
 	private final float wideAngle;
 	private final float baseAngle;
 	private final double distance;
-	private final Set<EntityDanmaku> set = new HashSet<>();
 
 	public ShapeWideShot(DanmakuTemplate danmaku, int amount, float wideAngle, float baseAngle, double distance) {
 		this.danmaku = danmaku;
@@ -36,29 +31,26 @@ public class ShapeWideShot implements IShape {
 	}
 
 	@Override
-	public Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+	public boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
 		if(!danmaku.world.isRemote) {
-			Vector3 rotateVec = Vector3.fromSpherical(angle.yaw(), angle.pitch() + 90); //TODO: How do do this without relying on yaw and pitch?
+			double pitch = angle.pitch();
+			Vector3 rotateVec = Vector3.fromSpherical(angle.yaw(), pitch + 90); //TODO: How do do this without relying on yaw and pitch?
 
-			double rotateAngle = Math.toRadians(-wideAngle / 2F);
-			double stepSize = Math.toRadians(wideAngle / (amount - 1));
-			rotateAngle += Math.toRadians(baseAngle);
+			DirectionTable table = DirectionTable.wideShot(amount, wideAngle, baseAngle);
+			DirectionTable.Axis axis = new DirectionTable.Axis(angle, rotateVec);
+			danmaku.rotation = danmaku.rotation.setRotationVec(rotateVec);
 
-			for(int i = 0; i < amount; i++) {
-				Vector3 angleVec = angle.rotateRad(rotateAngle, rotateVec);
+			for(int i = 0; i < table.size(); i++) {
+				Vector3 angleVec = table.rotate(i, axis);
 
 				danmaku.pos = pos.offset(angleVec, distance);
 				danmaku.angle = angleVec;
-				danmaku.roll = (float)(angle.pitch() * MathHelper.sin((float)rotateAngle));
-				danmaku.rotation = danmaku.rotation.setRotationVec(rotateVec);
+				danmaku.roll = (float)(pitch * MathHelper.sin((float)table.getAngle(i)));
 
-				EntityDanmaku spawned = danmaku.asEntity();
-				set.add(spawned);
-				danmaku.world.spawnEntityInWorld(spawned);
-				rotateAngle += stepSize;
+				sink.accept(danmaku);
 			}
 		}
 
-		return new Tuple<>(true, set);
+		return true;
 	}
 }
@@ -0,0 +1,103 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.impl.shape;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Evenly spread directions on a unit sphere, used by {@link ShapeSphere}.
+ * The directions are placed in rings around a pole, with one direction at
+ * each pole. The ring around the middle has the most directions, and the
+ * other rings have fewer the closer they are to a pole, so that the
+ * directions are about as far apart everywhere. Every other ring is turned
+ * half a step, so the directions in two rings next to each other don't line up.
+ *
+ * The directions are given in a frame where x points towards the first
+ * pole, and are cached for each amount of rings and bands.
+ */
+final class SphereLayout {
+
+	private static final int MAX_CACHED = 64;
+
+	private static final Map<Long, SphereLayout> CACHE = new LinkedHashMap<Long, SphereLayout>(16, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, SphereLayout> eldest) {
+			return size() > MAX_CACHED;
+		}
+	};
+
+	private final double[] x;
+	private final double[] y;
+	private final double[] z;
+
+	private SphereLayout(int rings, int bands) {
+		if(rings < 1 || bands < 1) {
+			x = y = z = new double[0];
+			return;
+		}
+
+		int[] counts = new int[rings];
+		int total = 2;
+		for(int i = 0; i < rings; i++) {
+			double polar = Math.PI * (i + 1) / (rings + 1);
+			counts[i] = Math.max((int)Math.round(bands * Math.sin(polar)), 1);
+			total += counts[i];
+		}
+
+		x = new double[total];
+		y = new double[total];
+		z = new double[total];
+
+		x[0] = 1D;
+		int index = 1;
+		for(int i = 0; i < rings; i++) {
+			double polar = Math.PI * (i + 1) / (rings + 1);
+			double ringX = Math.cos(polar);
+			double ringRadius = Math.sin(polar);
+			double step = 2D * Math.PI / counts[i];
+			double offset = i % 2 == 0 ? 0D : step / 2D;
+
+			for(int j = 0; j < counts[i]; j++) {
+				double azimuth = offset + j * step;
+				x[index] = ringX;
+				y[index] = ringRadius * Math.cos(azimuth);
+				z[index] = ringRadius * Math.sin(azimuth);
+				index++;
+			}
+		}
+		x[index] = -1D;
+	}
+
+	/**
+	 * Gets the layout for an amount of rings, and the amount of directions in the middle ring.
+	 */
+	static SphereLayout get(int rings, int bands) {
+		long key = (long)rings << 32 | bands & 0xFFFFFFFFL;
+		synchronized(CACHE) {
+			return CACHE.computeIfAbsent(key, k -> new SphereLayout(rings, bands));
+		}
+	}
+
+	int size() {
+		return x.length;
+	}
+
+	double getX(int i) {
+		return x[i];
+	}
+
+	double getY(int i) {
+		return y[i];
+	}
+
+	double getZ(int i) {
+		return z[i];
+	}
+}
@@ -12,14 +12,15 @@ import javax.annotation.Nullable;
 
 import net.katsstuff.danmakucore.data.AbstractVector3;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuSpawnBatch;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
-import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.entity.living.boss.EnumTouhouCharacters;
 import net.katsstuff.danmakucore.entity.spellcard.EntitySpellcard;
 import net.katsstuff.danmakucore.entity.spellcard.Spellcard;
 import net.katsstuff.danmakucore.entity.spellcard.SpellcardEntity;
-import net.katsstuff.danmakucore.helper.DanmakuCreationHelper;
 import net.katsstuff.danmakucore.helper.DanmakuHelper;
+import net.katsstuff.danmakucore.impl.shape.ShapeWideShot;
 import net.katsstuff.danmakucore.lib.LibColor;
 import net.katsstuff.danmakucore.lib.LibSpellcardName;
 import net.katsstuff.danmakucore.lib.data.LibShotData;
@@ -67,6 +68,7 @@ public class SpellcardDelusionEnlightenment extends Spellcard {
 		public void onSpellcardUpdate() {
 			if(!getWorld().isRemote) {
 				int danmakuLevelMultiplier = danmakuLevel.getMultiplier();
+				DanmakuSpawnBatch spawnBatch = DanmakuWorld.get(getWorld()).getSpawnBatch();
 
 				DanmakuHelper.playShotSound(card);
 				for(int i = 0; i < danmakuLevelMultiplier; i++) {
@@ -84,7 +86,7 @@ public class SpellcardDelusionEnlightenment extends Spellcard {
 							.build();
 
 					DanmakuHelper.playShotSound(card);
-					DanmakuCreationHelper.createWideShot(danmaku, danmakuLevelMultiplier * 2, 120F, 180F, 1.25D);
+					new ShapeWideShot(danmaku, danmakuLevelMultiplier * 2, 120F, 180F, 1.25D).draw(danmaku.pos, danmaku.angle, 0, spawnBatch);
 				}
 
 				if(time40 == 0) {
@@ -98,7 +100,7 @@ public class SpellcardDelusionEnlightenment extends Spellcard {
 								.setShot(LibShotData.SHOT_MEDIUM.setColor(LibColor.COLOR_SATURATED_RED))
 								.build();
 
-						DanmakuCreationHelper.createWideShot(danmaku, danmakuLevelMultiplier, 30F, 0F, 0.5D);
+						new ShapeWideShot(danmaku, danmakuLevelMultiplier, 30F, 0F, 0.5D).draw(danmaku.pos, danmaku.angle, 0, spawnBatch);
 					}
 				}
 			}
@@ -116,16 +118,16 @@ public class SpellcardDelusionEnlightenment extends Spellcard {
 					new Vector3(ray.hitVec) :
 					posReach; //Can I multiply the vectors here?
 
-			EntityDanmaku danmaku = DanmakuTemplate.builder()
+			DanmakuTemplate danmaku = DanmakuTemplate.builder()
 					.setUser(getUser())
 					.setSource(card)
 					.setAngle(Vector3.Up())
 					.setMovementData(0.2D)
 					.setPos(spawnPos)
 					.setShot(LibShotData.SHOT_RICE.setColor(LibColor.COLOR_SATURATED_BLUE))
-					.build().asEntity();
+					.build();
 
-			getWorld().spawnEntityInWorld(danmaku);
+			DanmakuWorld.get(getWorld()).getSpawnBatch().add(danmaku);
 		}
 	}
 }
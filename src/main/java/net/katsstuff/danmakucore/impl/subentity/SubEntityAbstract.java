@@ -15,11 +15,13 @@ import java.util.function.Predicate;
 
 import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.katsstuff.danmakucore.entity.danmaku.DamageSourceDanmaku;
 import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.entity.danmaku.subentity.SubEntity;
 import net.katsstuff.danmakucore.entity.living.IAllyDanmaku;
 import net.katsstuff.danmakucore.handler.ConfigHandler;
+import net.katsstuff.danmakucore.helper.CollisionHelper;
 import net.katsstuff.danmakucore.helper.DanmakuHelper;
 import net.katsstuff.danmakucore.helper.LogHelper;
 import net.minecraft.entity.Entity;
@@ -30,6 +32,7 @@ import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
 public abstract class SubEntityAbstract extends SubEntity {
@@ -127,19 +130,20 @@ public abstract class SubEntityAbstract extends SubEntity {
 		Entity danEntity = danmaku;
 		Vector3 start = new Vector3(danEntity);
 		Vector3 end = start.add(danEntity.motionX, danEntity.motionY, danEntity.motionZ);
-		RayTraceResult ray = world.rayTraceBlocks(start.toVec3d(), end.toVec3d(), false, true, false);
+		DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+		RayTraceResult ray = danmakuWorld.getBlockCache().rayTraceBlocks(start.toVec3d(), end.toVec3d());
 
 		if(ray != null) {
 			end = new Vector3(ray.hitVec);
 		}
 
 		Entity entity = null;
-		List<Entity> list = world.getEntitiesInAABBexcluding(danEntity, danEntity.getEntityBoundingBox()
-				.addCoord(danEntity.motionX, danEntity.motionY, danEntity.motionZ).expandXyz(1D), exclude::test);
+		List<Entity> list = danmakuWorld.getCollidableEntities(danEntity, danEntity.getEntityBoundingBox()
+				.addCoord(danEntity.motionX, danEntity.motionY, danEntity.motionZ).expandXyz(1D), exclude);
 		double d0 = 0.0D;
 
 		for(Entity entity1 : list) {
-			if(entity1.canBeCollidedWith() && !entity1.noClip) {
+			if(!entity1.noClip) {
 				AxisAlignedBB axisalignedbb = entity1.getEntityBoundingBox().expandXyz(0.3D);
 				RayTraceResult ray1 = axisalignedbb.calculateIntercept(start.toVec3d(), end.toVec3d());
 
@@ -158,24 +162,102 @@ public abstract class SubEntityAbstract extends SubEntity {
 		}
 
 		if(ray != null) {
-			if(ray.typeOfHit == RayTraceResult.Type.BLOCK) {
-				if(world.getBlockState(ray.getBlockPos()).getBlock() == Blocks.PORTAL) {
-					danEntity.setPortal(ray.getBlockPos());
-				}
-				impactBlock(ray);
+			onHit(ray);
+		}
+	}
+
+	/**
+	 * Checks for hits against everything except the user and source of the danmaku.
+	 * Gives the same result as {@link #hitCheck(Predicate)}, but does all the
+	 * math on primitives. This allocates less, but not nothing: blocks that
+	 * aren't air in the path still use the vanilla raytrace, and hits create a
+	 * {@link RayTraceResult}. The per tick path is not allocation free either,
+	 * as {@link #rotate()} creates a new angle each tick a danmaku rotates.
+	 */
+	protected void hitCheck() {
+		Entity danEntity = danmaku;
+		Entity user = danmaku.getUserEntity();
+		Entity source = danmaku.getSourceEntity();
+		double motionX = danEntity.motionX;
+		double motionY = danEntity.motionY;
+		double motionZ = danEntity.motionZ;
+		double startX = danEntity.posX;
+		double startY = danEntity.posY;
+		double startZ = danEntity.posZ;
+		double endX = startX + motionX;
+		double endY = startY + motionY;
+		double endZ = startZ + motionZ;
+
+		DanmakuWorld danmakuWorld = DanmakuWorld.get(world);
+		RayTraceResult ray = null;
+		if(!danmakuWorld.getBlockCache().isClear(startX, startY, startZ, endX, endY, endZ)) {
+			ray = world.rayTraceBlocks(new Vec3d(startX, startY, startZ), new Vec3d(endX, endY, endZ), false, true, false);
+
+			if(ray != null) {
+				endX = ray.hitVec.xCoord;
+				endY = ray.hitVec.yCoord;
+				endZ = ray.hitVec.zCoord;
 			}
-			else if(ray.typeOfHit == RayTraceResult.Type.ENTITY) {
-				impactEntity(ray);
+		}
+
+		//Same as getEntityBoundingBox().addCoord(motion).expandXyz(1D)
+		AxisAlignedBB box = danEntity.getEntityBoundingBox();
+		List<Entity> list = danmakuWorld.getCollidableEntities(
+				(motionX < 0D ? box.minX + motionX : box.minX) - 1D,
+				(motionY < 0D ? box.minY + motionY : box.minY) - 1D,
+				(motionZ < 0D ? box.minZ + motionZ : box.minZ) - 1D,
+				(motionX > 0D ? box.maxX + motionX : box.maxX) + 1D,
+				(motionY > 0D ? box.maxY + motionY : box.maxY) + 1D,
+				(motionZ > 0D ? box.maxZ + motionZ : box.maxZ) + 1D,
+				danEntity, user, source);
+
+		Entity entity = null;
+		double d0 = 0.0D;
+
+		//Indexed loop so that we don't create an iterator
+		//noinspection ForLoopReplaceableByForEach
+		for(int i = 0; i < list.size(); i++) {
+			Entity entity1 = list.get(i);
+			if(!entity1.noClip) {
+				AxisAlignedBB entityBox = entity1.getEntityBoundingBox();
+				double d1 = CollisionHelper.interceptDistanceSq(entityBox.minX - 0.3D, entityBox.minY - 0.3D, entityBox.minZ - 0.3D,
+						entityBox.maxX + 0.3D, entityBox.maxY + 0.3D, entityBox.maxZ + 0.3D, startX, startY, startZ, endX, endY, endZ);
+
+				if(d1 >= 0D && (d1 < d0 || d0 == 0.0D)) {
+					entity = entity1;
+					d0 = d1;
+				}
 			}
+		}
+
+		if(entity != null) {
+			ray = new RayTraceResult(entity);
+		}
 
-			impact(ray);
+		if(ray != null) {
+			onHit(ray);
 		}
 	}
 
+	private void onHit(RayTraceResult ray) {
+		if(ray.typeOfHit == RayTraceResult.Type.BLOCK) {
+			if(world.getBlockState(ray.getBlockPos()).getBlock() == Blocks.PORTAL) {
+				danmaku.setPortal(ray.getBlockPos());
+			}
+			impactBlock(ray);
+		}
+		else if(ray.typeOfHit == RayTraceResult.Type.ENTITY) {
+			impactEntity(ray);
+		}
+
+		impact(ray);
+	}
+
 	/**
-	 * Sets the angle based on the rotation.
+	 * Sets the angle based on the rotation. The angle is immutable, so this
+	 * creates the new angle, but nothing else.
 	 */
 	protected void rotate() {
-		danmaku.setAngle(danmaku.getAngle().rotate(danmaku.getRotationData().getRotationQuat()));
+		danmaku.setAngle(danmaku.getAngle().rotate(danmaku.getRotationData().getRotationQuat()), false);
 	}
 }
@@ -32,6 +32,11 @@ public class SubEntityExplosion extends SubEntityType {
 		return new Explosion(world, entityDanmaku, strength);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	private static class Explosion extends SubEntityTypeDefault.SubEntityDefault {
 
 		private final float strength;
@@ -28,6 +28,11 @@ public class SubEntityFire extends SubEntityType {
 		return new Fire(world, entityDanmaku, multiplier);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	private static class Fire extends SubEntityTypeDefault.SubEntityDefault {
 
 		private final float multiplier;
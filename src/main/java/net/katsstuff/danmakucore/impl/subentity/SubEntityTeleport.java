@@ -28,6 +28,11 @@ public class SubEntityTeleport extends SubEntityType {
 		return new Teleport(world, entityDanmaku);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	private static class Teleport extends SubEntityTypeDefault.SubEntityDefault {
 
 
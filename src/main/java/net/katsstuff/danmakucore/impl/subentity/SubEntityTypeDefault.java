@@ -9,7 +9,6 @@
 package net.katsstuff.danmakucore.impl.subentity;
 
 import net.katsstuff.danmakucore.data.RotationData;
-import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.katsstuff.danmakucore.entity.danmaku.subentity.SubEntity;
 import net.katsstuff.danmakucore.entity.danmaku.subentity.SubEntityType;
@@ -27,6 +26,11 @@ public class SubEntityTypeDefault extends SubEntityType {
 		return new SubEntityDefault(world, entityDanmaku);
 	}
 
+	@Override
+	public boolean canBeSimulated() {
+		return true;
+	}
+
 	@SuppressWarnings("WeakerAccess")
 	public static class SubEntityDefault extends SubEntityAbstract {
 
@@ -36,13 +40,13 @@ public class SubEntityTypeDefault extends SubEntityType {
 
 		@Override
 		public void subEntityTick() {
-			ShotData shot = danmaku.getShotData();
-			int delay = shot.delay();
-			if(delay > 0) {
+			boolean simulate = !world.isRemote || danmaku.isPredicted();
+			//The server doesn't tick delayed danmaku. They are released from their delay by the timing wheel
+			if(world.isRemote && danmaku.getDelayLeft() > 0) {
 				danmaku.ticksExisted--;
-				delay--;
+				int delay = danmaku.countDownDelay();
 
-				if(!world.isRemote) {
+				if(simulate) {
 					if(delay <= 0) {
 						danmaku.resetMotion();
 					}
@@ -52,12 +56,10 @@ public class SubEntityTypeDefault extends SubEntityType {
 						danmaku.motionZ = 0;
 					}
 				}
-
-				shot = shot.setDelay(delay);
-				danmaku.setShotData(shot);
 			}
 			else {
-				if(!world.isRemote) {
+				//Members of a formation already have their motion set by the formation
+				if(simulate && danmaku.getFormation() == null) {
 					RotationData rotationData = danmaku.getRotationData();
 					if(rotationData.isEnabled() && danmaku.ticksExisted < rotationData.getEndTime()) {
 						rotate();
@@ -67,7 +69,10 @@ public class SubEntityTypeDefault extends SubEntityType {
 					danmaku.accelerate(currentSpeed);
 
 					updateMotionWithGravity();
-					hitCheck(entity -> entity != danmaku.getUser().orElse(null) && entity != danmaku.getSource().orElse(null));
+				}
+
+				if(!world.isRemote) {
+					hitCheck();
 				}
 
 				if(danmaku.motionX != 0D && danmaku.motionY != 0D && danmaku.motionZ != 0D) {
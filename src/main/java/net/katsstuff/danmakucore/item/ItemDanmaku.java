@@ -19,6 +19,7 @@ import net.katsstuff.danmakucore.data.ShotData;
 import net.katsstuff.danmakucore.data.Vector3;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
 import net.katsstuff.danmakucore.entity.danmaku.DanmakuVariant;
+import net.katsstuff.danmakucore.handler.ConfigHandler;
 import net.katsstuff.danmakucore.helper.DanmakuCreationHelper;
 import net.katsstuff.danmakucore.helper.DanmakuHelper;
 import net.katsstuff.danmakucore.helper.ItemNBTHelper;
@@ -36,6 +37,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.EnumActionResult;
 import net.minecraft.util.EnumHand;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.common.registry.FMLControlledNamespacedRegistry;
 import net.minecraftforge.fml.relauncher.Side;
@@ -140,7 +142,7 @@ public class ItemDanmaku extends ItemBase {
 			if(!danmakuVariant.onShootDanmaku(player, alternateMode, pos, angle)) return false;
 		}
 
-		int amount = getAmount(stack);
+		int amount = MathHelper.clamp(getAmount(stack), 1, ConfigHandler.danmaku.danmakuMaxNumber);
 		double shotSpeed = getSpeed(stack);
 		int danmakuPattern = getPattern(stack);
 		ShotData shot = ShotData.fromNBTItemStack(stack);
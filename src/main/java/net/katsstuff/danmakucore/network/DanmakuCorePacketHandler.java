@@ -25,6 +25,10 @@ public class DanmakuCorePacketHandler {
 		INSTANCE.registerMessage(SpellcardInfoPacket.Handler.class, SpellcardInfoPacket.Message.class, id++, Side.CLIENT);
 		INSTANCE.registerMessage(ParticlePacket.Handler.class, ParticlePacket.Message.class, id++, Side.CLIENT);
 		INSTANCE.registerMessage(ChargeSpherePacket.Handler.class, ChargeSpherePacket.Message.class, id++, Side.CLIENT);
+		INSTANCE.registerMessage(SimulatedDanmakuPacket.Handler.class, SimulatedDanmakuPacket.Message.class, id++, Side.CLIENT);
+		INSTANCE.registerMessage(DanmakuCorrectionPacket.Handler.class, DanmakuCorrectionPacket.Message.class, id++, Side.CLIENT);
+		INSTANCE.registerMessage(FreezeGroupPacket.Handler.class, FreezeGroupPacket.Message.class, id++, Side.CLIENT);
+		INSTANCE.registerMessage(FormationPacket.Handler.class, FormationPacket.Message.class, id++, Side.CLIENT);
 	}
 
 	public static void sendToAllAround(IMessage message, Vector3 pos, double distance, int dim) {
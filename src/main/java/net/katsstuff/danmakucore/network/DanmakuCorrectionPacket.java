@@ -0,0 +1,65 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.Entity;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Sent when the movement of a danmaku that the client predicts has been
+ * changed by something the client can't know about.
+ */
+public class DanmakuCorrectionPacket {
+
+	public static class Message implements IMessage {
+
+		private int entity;
+		private ByteBuf data;
+
+		public Message(EntityDanmaku danmaku) {
+			entity = danmaku.getEntityId();
+			data = Unpooled.buffer();
+			danmaku.writeMovementState(data);
+		}
+
+		public Message() {}
+
+		@Override
+		public void fromBytes(ByteBuf buf) {
+			entity = buf.readInt();
+			data = buf.copy();
+		}
+
+		@Override
+		public void toBytes(ByteBuf buf) {
+			buf.writeInt(entity);
+			buf.writeBytes(data, data.readerIndex(), data.readableBytes());
+		}
+	}
+
+	public static class Handler implements IMessageHandler<Message, IMessage> {
+
+		@Override
+		public IMessage onMessage(Message message, MessageContext ctx) {
+			Minecraft.getMinecraft().addScheduledTask(() -> {
+				Entity entity = Minecraft.getMinecraft().world.getEntityByID(message.entity);
+				if(entity instanceof EntityDanmaku) {
+					((EntityDanmaku)entity).readMovementState(message.data);
+				}
+			});
+			return null;
+		}
+	}
+}
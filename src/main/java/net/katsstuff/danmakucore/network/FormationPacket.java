@@ -0,0 +1,84 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.network;
+
+import io.netty.buffer.ByteBuf;
+import net.katsstuff.danmakucore.data.Quat;
+import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuFormation;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Sent each tick with the new pose of a {@link DanmakuFormation}, or when it's no longer used.
+ */
+public class FormationPacket {
+
+	public static class Message implements IMessage {
+
+		private int formation;
+		private boolean ended;
+		private Vector3 pos;
+		private Quat orientation;
+
+		public Message(DanmakuFormation formation, boolean ended) {
+			this.formation = formation.getId();
+			this.ended = ended;
+			pos = formation.getPos();
+			orientation = formation.getOrientation();
+		}
+
+		public Message() {}
+
+		@Override
+		public void fromBytes(ByteBuf buf) {
+			formation = buf.readInt();
+			ended = buf.readBoolean();
+			if(!ended) {
+				pos = new Vector3(buf.readDouble(), buf.readDouble(), buf.readDouble());
+				orientation = new Quat(buf.readDouble(), buf.readDouble(), buf.readDouble(), buf.readDouble());
+			}
+		}
+
+		@Override
+		public void toBytes(ByteBuf buf) {
+			buf.writeInt(formation);
+			buf.writeBoolean(ended);
+			if(!ended) {
+				buf.writeDouble(pos.x());
+				buf.writeDouble(pos.y());
+				buf.writeDouble(pos.z());
+				buf.writeDouble(orientation.x());
+				buf.writeDouble(orientation.y());
+				buf.writeDouble(orientation.z());
+				buf.writeDouble(orientation.w());
+			}
+		}
+	}
+
+	public static class Handler implements IMessageHandler<Message, IMessage> {
+
+		@Override
+		public IMessage onMessage(Message message, MessageContext ctx) {
+			Minecraft.getMinecraft().addScheduledTask(() -> {
+				DanmakuWorld danmakuWorld = DanmakuWorld.get(Minecraft.getMinecraft().world);
+				if(message.ended) {
+					danmakuWorld.removeFormation(message.formation);
+				}
+				else {
+					danmakuWorld.getFormation(message.formation, message.pos, message.orientation).setPose(message.pos, message.orientation);
+				}
+			});
+			return null;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.network;
+
+import io.netty.buffer.ByteBuf;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
+import net.katsstuff.danmakucore.entity.danmaku.FreezeGroup;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Sent when a {@link FreezeGroup} is frozen or unfrozen.
+ */
+public class FreezeGroupPacket {
+
+	public static class Message implements IMessage {
+
+		private int group;
+		private boolean frozen;
+
+		public Message(FreezeGroup group) {
+			this.group = group.getId();
+			frozen = group.isFrozen();
+		}
+
+		public Message() {}
+
+		@Override
+		public void fromBytes(ByteBuf buf) {
+			group = buf.readInt();
+			frozen = buf.readBoolean();
+		}
+
+		@Override
+		public void toBytes(ByteBuf buf) {
+			buf.writeInt(group);
+			buf.writeBoolean(frozen);
+		}
+	}
+
+	public static class Handler implements IMessageHandler<Message, IMessage> {
+
+		@Override
+		public IMessage onMessage(Message message, MessageContext ctx) {
+			Minecraft.getMinecraft().addScheduledTask(
+					() -> DanmakuWorld.get(Minecraft.getMinecraft().world).getFreezeGroup(message.group).setFrozen(message.frozen));
+			return null;
+		}
+	}
+}
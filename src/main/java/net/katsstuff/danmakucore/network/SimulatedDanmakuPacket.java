@@ -0,0 +1,59 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.network;
+
+import io.netty.buffer.ByteBuf;
+import net.katsstuff.danmakucore.DanmakuCore;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Syncs the danmaku simulated by the {@link net.katsstuff.danmakucore.engine.DanmakuEngine}.
+ * The content is written and read by the engine itself.
+ */
+public class SimulatedDanmakuPacket {
+
+	public static class Message implements IMessage {
+
+		private PacketBuffer data;
+
+		public Message(PacketBuffer data) {
+			this.data = data;
+		}
+
+		public Message() {}
+
+		public PacketBuffer getData() {
+			return data;
+		}
+
+		@Override
+		public void fromBytes(ByteBuf byteBuf) {
+			data = new PacketBuffer(byteBuf.copy());
+		}
+
+		@Override
+		public void toBytes(ByteBuf byteBuf) {
+			//Don't move the reader index, the same message might be sent to more than one player
+			byteBuf.writeBytes(data, data.readerIndex(), data.readableBytes());
+		}
+	}
+
+	public static class Handler implements IMessageHandler<Message, IMessage> {
+
+		@Override
+		public IMessage onMessage(Message message, MessageContext ctx) {
+			Minecraft.getMinecraft().addScheduledTask(() -> DanmakuCore.proxy.handleSimulatedDanmaku(message));
+			return null;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.shape;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+
+/**
+ * A sink that spawns each danmaku as an entity, and adds the ones that
+ * were spawned to a set.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CollectingShapeSink implements IShapeSink {
+
+	private final Set<EntityDanmaku> spawned;
+
+	public CollectingShapeSink(Set<EntityDanmaku> spawned) {
+		this.spawned = spawned;
+	}
+
+	public CollectingShapeSink() {
+		this(new HashSet<>());
+	}
+
+	@Override
+	public void accept(DanmakuTemplate template) {
+		EntityDanmaku danmaku = template.asEntity();
+		if(template.world.spawnEntityInWorld(danmaku)) {
+			spawned.add(danmaku);
+		}
+	}
+
+	@Override
+	public void spawned(EntityDanmaku danmaku) {
+		spawned.add(danmaku);
+	}
+
+	/**
+	 * The danmaku that have been spawned so far.
+	 */
+	public Set<EntityDanmaku> getSpawned() {
+		return spawned;
+	}
+}
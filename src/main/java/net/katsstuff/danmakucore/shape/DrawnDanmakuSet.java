@@ -0,0 +1,85 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.shape;
+
+import java.util.AbstractSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+
+/**
+ * The danmaku drawn by a shape that are still alive. Dead danmaku are
+ * removed when they are found, so the set doesn't grow for shapes that
+ * draw for a long time.
+ *
+ * Danmaku are compared by identity, and are only counted as the same
+ * danmaku while they keep the UUID they had when they were added, as
+ * danmaku can be used again by the {@link net.katsstuff.danmakucore.engine.DanmakuPool}.
+ */
+public class DrawnDanmakuSet extends AbstractSet<EntityDanmaku> {
+
+	private static final int MIN_PRUNE_SIZE = 16;
+
+	private final Map<EntityDanmaku, UUID> danmaku = new IdentityHashMap<>();
+	private int pruneAt = MIN_PRUNE_SIZE;
+
+	@Override
+	public boolean add(EntityDanmaku entity) {
+		if(entity.isDead) return false;
+
+		UUID old = danmaku.put(entity, entity.getUniqueID());
+		if(danmaku.size() >= pruneAt) {
+			prune();
+			pruneAt = Math.max(danmaku.size() * 2, MIN_PRUNE_SIZE);
+		}
+
+		return !entity.getUniqueID().equals(old);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		//noinspection SuspiciousMethodCalls
+		UUID uuid = danmaku.get(o);
+		return uuid != null && isAlive((EntityDanmaku)o, uuid);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		//noinspection SuspiciousMethodCalls
+		return danmaku.remove(o) != null;
+	}
+
+	@Override
+	public void clear() {
+		danmaku.clear();
+	}
+
+	@Override
+	public int size() {
+		prune();
+		return danmaku.size();
+	}
+
+	@Override
+	public Iterator<EntityDanmaku> iterator() {
+		prune();
+		return danmaku.keySet().iterator();
+	}
+
+	private void prune() {
+		danmaku.entrySet().removeIf(entry -> !isAlive(entry.getKey(), entry.getValue()));
+	}
+
+	private static boolean isAlive(EntityDanmaku entity, UUID uuid) {
+		return !entity.isDead && entity.getUniqueID().equals(uuid);
+	}
+}
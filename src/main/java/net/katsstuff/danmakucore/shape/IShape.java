@@ -16,16 +16,40 @@ import net.minecraft.util.Tuple;
 
 /**
  * Something that can be drawn as danmaku over several ticks. Call {@link ShapeHandler#createShape} to create the shape.
+ *
+ * Shapes should implement at least one of {@link #draw(Vector3, Vector3, int, IShapeSink)}
+ * and {@link #drawForTick(Vector3, Vector3, int)}. New shapes should implement draw.
  */
 public interface IShape {
 
 	/**
-	 * Draws a shape for the given tick.
+	 * Draws a shape for the given tick, passing the danmaku it creates to a sink.
+	 *
+	 * @param pos The position to draw the shape at.
+	 * @param angle The angle that was registered for this shape.
+	 * @param tick The tick position.
+	 * @param sink Where the danmaku created by this shape go.
+	 * @return If this shape is done.
+	 */
+	default boolean draw(Vector3 pos, Vector3 angle, int tick, IShapeSink sink) {
+		Tuple<Boolean, Set<EntityDanmaku>> ret = drawForTick(pos, angle, tick);
+		for(EntityDanmaku danmaku : ret.getSecond()) {
+			sink.spawned(danmaku);
+		}
+		return ret.getFirst();
+	}
+
+	/**
+	 * Draws a shape for the given tick, spawning the danmaku as entities.
 	 *
 	 * @param pos The position to draw the shape at.
 	 * @param angle The angle that was registered for this shape.
 	 * @param tick The tick position.
 	 * @return Tuple first, if this shape is done. Tuple second, the danmaku that was created by this shape.
 	 */
-	Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick);
+	default Tuple<Boolean, Set<EntityDanmaku>> drawForTick(Vector3 pos, Vector3 angle, int tick) {
+		CollectingShapeSink sink = new CollectingShapeSink();
+		boolean done = draw(pos, angle, tick, sink);
+		return new Tuple<>(done, sink.getSpawned());
+	}
 }
@@ -0,0 +1,39 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.shape;
+
+import net.katsstuff.danmakucore.entity.danmaku.DanmakuTemplate;
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
+
+/**
+ * Receives the danmaku a shape wants to create while it's drawn. Composite
+ * shapes pass the same sink on to the shapes they are made of.
+ */
+@FunctionalInterface
+public interface IShapeSink {
+
+	/**
+	 * A sink that spawns each danmaku using {@link DanmakuTemplate#spawn()},
+	 * for when the danmaku that were created are not needed.
+	 */
+	IShapeSink SPAWN = DanmakuTemplate::spawn;
+
+	/**
+	 * Called with a danmaku the shape wants to create.
+	 * @param template The danmaku to create. Shapes reuse the same template
+	 * for each danmaku, so copy it if it's needed after this returns.
+	 */
+	void accept(DanmakuTemplate template);
+
+	/**
+	 * Called with a danmaku that a shape spawned itself. Only used for shapes
+	 * that only implement {@link IShape#drawForTick(net.katsstuff.danmakucore.data.Vector3, net.katsstuff.danmakucore.data.Vector3, int)}.
+	 */
+	default void spawned(EntityDanmaku danmaku) {}
+}
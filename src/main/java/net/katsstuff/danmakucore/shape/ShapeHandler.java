@@ -8,31 +8,39 @@
  */
 package net.katsstuff.danmakucore.shape;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import net.katsstuff.danmakucore.data.Vector3;
+import net.katsstuff.danmakucore.engine.DanmakuWorld;
 import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.util.Tuple;
-import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
-import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraft.world.World;
+import net.minecraftforge.common.DimensionManager;
 
+/**
+ * Creates shapes that are drawn over several ticks. Each world draws it's
+ * own shapes using a {@link ShapeScheduler}, and shapes can be created from
+ * any thread.
+ */
 public final class ShapeHandler {
 
-	private static final List<IShapeEntry> shapeList = new ArrayList<>();
-
 	/**
 	 * Creates a new shape with a position as an anchor
-	 * @return A set that will contain all the danmaku spawned by the shape. The set's content will change over time
+	 * @return A set that will contain all the danmaku spawned by the shape that are still alive. The set's content will change over time
 	 */
 	@SuppressWarnings("WeakerAccess")
+	public static Set<EntityDanmaku> createShape(World world, IShape shape, Vector3 pos, Vector3 angle) {
+		return createEntry(world, new ShapeEntryPosition(shape, pos, angle));
+	}
+
+	/**
+	 * Creates a new shape with a position as an anchor in the overworld.
+	 * @deprecated Use {@link #createShape(World, IShape, Vector3, Vector3)} so that the shape is drawn in the correct world.
+	 */
+	@Deprecated
 	public static Set<EntityDanmaku> createShape(IShape shape, Vector3 pos, Vector3 angle) {
-		return createEntry(new ShapeEntryPosition(shape, pos, angle));
+		return createShape(getOverworld(), shape, pos, angle);
 	}
 
 	/**
@@ -40,7 +48,7 @@ public final class ShapeHandler {
 	 * @return A set that will contain all the danmaku spawned by the shape. The set's content will change over time
 	 */
 	public static Set<EntityDanmaku> createShape(IShape shape, Entity anchor) {
-		return createEntry(new ShapeEntryEntity(shape, anchor));
+		return createEntry(anchor.world, new ShapeEntryEntity(shape, anchor));
 	}
 
 	/**
@@ -49,25 +57,33 @@ public final class ShapeHandler {
 	 */
 	@SuppressWarnings("unused")
 	public static Set<EntityDanmaku> createShape(IShape shape, EntityLivingBase anchor) {
-		return createEntry(new ShapeEntryEntityLiving(shape, anchor));
+		return createEntry(anchor.world, new ShapeEntryEntityLiving(shape, anchor));
 	}
 
 	/**
 	 * Creates a new shape with a from the specific {@link ShapeEntry}
+	 * @param world The world to draw the shape in.
 	 * @return A set that will contain all the danmaku spawned by the shape. The set's content will change over time
 	 */
 	@SuppressWarnings("WeakerAccess")
-	public static Set<EntityDanmaku> createEntry(IShapeEntry entry) {
-		shapeList.add(entry);
+	public static Set<EntityDanmaku> createEntry(World world, IShapeEntry entry) {
+		DanmakuWorld.get(world).getShapes().add(entry);
 		return entry.getDrawn();
 	}
 
-	@SubscribeEvent
-	public static void onTick(TickEvent.WorldTickEvent event) {
-		if(event.phase == TickEvent.Phase.START) {
-			List<IShapeEntry> completedShapes = shapeList.stream().filter(IShapeEntry::draw).collect(Collectors.toList());
-			shapeList.removeAll(completedShapes);
-		}
+	/**
+	 * Creates a new shape with a from the specific {@link ShapeEntry} in the overworld.
+	 * @deprecated Use {@link #createEntry(World, IShapeEntry)} so that the shape is drawn in the correct world.
+	 */
+	@Deprecated
+	public static Set<EntityDanmaku> createEntry(IShapeEntry entry) {
+		return createEntry(getOverworld(), entry);
+	}
+
+	private static World getOverworld() {
+		World overworld = DimensionManager.getWorld(0);
+		if(overworld == null) throw new IllegalStateException("Tried to create a shape without a world while no server is running");
+		return overworld;
 	}
 
 	@SuppressWarnings("WeakerAccess")
@@ -75,6 +91,7 @@ public final class ShapeHandler {
 
 		/**
 		 * Gets the current drawn danmaku from this shape. This set should always be the same reference.
+		 * Dead danmaku should not be kept in it, for example by using a {@link DrawnDanmakuSet}.
 		 */
 		Set<EntityDanmaku> getDrawn();
 
@@ -90,7 +107,8 @@ public final class ShapeHandler {
 	 */
 	private static abstract class ShapeEntry implements IShapeEntry {
 
-		final Set<EntityDanmaku> drawn = new HashSet<>();
+		final Set<EntityDanmaku> drawn = new DrawnDanmakuSet();
+		final IShapeSink sink = new CollectingShapeSink(drawn);
 		final IShape shape;
 		int counter = 0;
 
@@ -117,10 +135,9 @@ public final class ShapeHandler {
 		public boolean draw() {
 			Vector3 currentPos = new Vector3(entity);
 			Vector3 currentAngle = Vector3.fromSpherical(entity.rotationYaw, entity.rotationPitch);
-			Tuple<Boolean, Set<EntityDanmaku>> ret = shape.drawForTick(currentPos, currentAngle, counter);
-			drawn.addAll(ret.getSecond());
+			boolean done = shape.draw(currentPos, currentAngle, counter, sink);
 			counter++;
-			return ret.getFirst();
+			return done;
 		}
 	}
 
@@ -137,10 +154,9 @@ public final class ShapeHandler {
 		public boolean draw() {
 			Vector3 currentPos = new Vector3(entity);
 			Vector3 currentAngle = Vector3.fromSpherical(entity.rotationYaw, entity.rotationPitch);
-			Tuple<Boolean, Set<EntityDanmaku>> ret = shape.drawForTick(currentPos, currentAngle, counter);
-			drawn.addAll(ret.getSecond());
+			boolean done = shape.draw(currentPos, currentAngle, counter, sink);
 			counter++;
-			return ret.getFirst();
+			return done;
 		}
 	}
 
@@ -157,10 +173,9 @@ public final class ShapeHandler {
 
 		@Override
 		public boolean draw() {
-			Tuple<Boolean, Set<EntityDanmaku>> ret = shape.drawForTick(pos, angle, counter);
-			drawn.addAll(ret.getSecond());
+			boolean done = shape.draw(pos, angle, counter, sink);
 			counter++;
-			return ret.getFirst();
+			return done;
 		}
 	}
 }
@@ -0,0 +1,56 @@
+/*
+ * This class was created by <Katrix>. It's distributed as
+ * part of the DanmakuCore Mod. Get the Source Code in github:
+ * https://github.com/Katrix-/DanmakuCore
+ *
+ * DanmakuCore is Open Source and distributed under the
+ * the DanmakuCore license: https://github.com/Katrix-/DanmakuCore/blob/master/LICENSE.md
+ */
+package net.katsstuff.danmakucore.shape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Draws the shapes of a single world each tick. Shapes can be added from
+ * any thread, and start drawing the next time the world ticks. Use
+ * {@link ShapeHandler} to create shapes.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ShapeScheduler {
+
+	private final Queue<ShapeHandler.IShapeEntry> added = new ConcurrentLinkedQueue<>();
+	//Only touched from the world's thread
+	private final List<ShapeHandler.IShapeEntry> active = new ArrayList<>();
+
+	/**
+	 * Adds a shape to be drawn, starting with the next tick.
+	 */
+	public void add(ShapeHandler.IShapeEntry entry) {
+		added.add(entry);
+	}
+
+	/**
+	 * How many shapes are being drawn. Doesn't count shapes added since the last tick.
+	 */
+	public int size() {
+		return active.size();
+	}
+
+	/**
+	 * Draws all the shapes once, and removes the ones that are completed.
+	 * Shapes added while drawing wait until the next tick. Called by the
+	 * world each tick on the server.
+	 */
+	public void tick() {
+		ShapeHandler.IShapeEntry entry;
+		while((entry = added.poll()) != null) {
+			active.add(entry);
+		}
+
+		//Draws and removes in the same pass. Each entry is only drawn once
+		active.removeIf(ShapeHandler.IShapeEntry::draw);
+	}
+}
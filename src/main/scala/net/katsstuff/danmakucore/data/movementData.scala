@@ -10,6 +10,8 @@ package net.katsstuff.danmakucore.data
 
 import scala.beans.BeanProperty
 
+import com.google.common.math.DoubleMath
+import net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku
 import net.katsstuff.danmakucore.helper.NBTHelper
 import net.minecraft.nbt.NBTTagCompound
 import net.minecraftforge.common.util.Constants
@@ -45,6 +47,99 @@ abstract sealed class AbstractMovementData {
 		*/
 	def gravity: Vector3
 
+	/**
+		* If the movement can be found with [[speedAfter]] and [[distanceAfter]] without going
+		* through each tick. This is the case if there is no gravity, or if the speed is constant,
+		* as the gravity then never builds up. Rotation is not taken into account.
+		*/
+	def hasClosedForm: Boolean = gravity == Vector3.Zero || (speedAcceleration == 0D && lowerSpeedLimit == upperSpeedLimit)
+
+	/**
+		* Finds the speed after accelerating a single tick, the same way
+		* [[net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku#accelerate]] does.
+		*/
+	def accelerate(currentSpeed: Double): Double = {
+		if(DoubleMath.fuzzyCompare(currentSpeed, upperSpeedLimit, EntityDanmaku.EPSILON) >= 0 && speedAcceleration >= 0D) upperSpeedLimit
+		else if(DoubleMath.fuzzyCompare(currentSpeed, lowerSpeedLimit, EntityDanmaku.EPSILON) <= 0 && speedAcceleration <= 0D) lowerSpeedLimit
+		else {
+			val newSpeed = currentSpeed + speedAcceleration
+			if(DoubleMath.fuzzyCompare(newSpeed, upperSpeedLimit, EntityDanmaku.EPSILON) > 0) upperSpeedLimit
+			else if(DoubleMath.fuzzyCompare(newSpeed, lowerSpeedLimit, EntityDanmaku.EPSILON) < 0) lowerSpeedLimit
+			else newSpeed
+		}
+	}
+
+	/**
+		* Finds the motion after accelerating a single tick along an angle, not counting gravity, the same way
+		* [[net.katsstuff.danmakucore.entity.danmaku.EntityDanmaku#accelerate]] does. Unlike the version that only takes the speed,
+		* the part of the motion that isn't along the angle, like gravity from earlier ticks, is kept as long as
+		* the speed is within the limits.
+		*/
+	def accelerate(motion: Vector3, angle: Vector3): Vector3 = {
+		val currentSpeed = motion.length
+		if(DoubleMath.fuzzyCompare(currentSpeed, upperSpeedLimit, EntityDanmaku.EPSILON) >= 0 && speedAcceleration >= 0D) angle * upperSpeedLimit
+		else if(DoubleMath.fuzzyCompare(currentSpeed, lowerSpeedLimit, EntityDanmaku.EPSILON) <= 0 && speedAcceleration <= 0D) angle * lowerSpeedLimit
+		else {
+			val newMotion = motion + angle * speedAcceleration
+			val newSpeed = newMotion.length
+			if(DoubleMath.fuzzyCompare(newSpeed, upperSpeedLimit, EntityDanmaku.EPSILON) > 0) angle * upperSpeedLimit
+			else if(DoubleMath.fuzzyCompare(newSpeed, lowerSpeedLimit, EntityDanmaku.EPSILON) < 0) angle * lowerSpeedLimit
+			else newMotion
+		}
+	}
+
+	/**
+		* The speed along the angle after some ticks, not counting gravity.
+		* Only exact if [[hasClosedForm]] is true.
+		* @param currentSpeed The length of the motion right now.
+		*/
+	def speedAfter(currentSpeed: Double, ticks: Int): Double = {
+		if(ticks <= 0) currentSpeed
+		else {
+			val first = accelerate(currentSpeed)
+			if(speedAcceleration > 0D) Math.min(first + (ticks - 1) * speedAcceleration, upperSpeedLimit)
+			else if(speedAcceleration < 0D) Math.max(first + (ticks - 1) * speedAcceleration, lowerSpeedLimit)
+			else first
+		}
+	}
+
+	/**
+		* How far along the angle a danmaku moves over some ticks, not counting gravity.
+		* Only exact if [[hasClosedForm]] is true.
+		* @param currentSpeed The length of the motion right now.
+		*/
+	def distanceAfter(currentSpeed: Double, ticks: Int): Double = {
+		if(ticks <= 0) 0D
+		else {
+			val first = accelerate(currentSpeed)
+			//The speed changes linearly from the first tick, until it reaches the limit
+			val limit = if(speedAcceleration > 0D) upperSpeedLimit else if(speedAcceleration < 0D) lowerSpeedLimit else first
+			val linearTicks =
+				if(speedAcceleration == 0D) ticks.toDouble
+				else Math.min(ticks.toDouble, Math.max(Math.ceil((limit - first) / speedAcceleration), 0D))
+
+			linearTicks * first + speedAcceleration * linearTicks * (linearTicks - 1D) / 2D + (ticks - linearTicks) * limit
+		}
+	}
+
+	/**
+		* The motion a danmaku will have after some ticks. Only exact if [[hasClosedForm]] is true.
+		*/
+	def motionAfter(angle: Vector3, currentSpeed: Double, ticks: Int): Vector3 =
+		if(ticks <= 0) angle * currentSpeed else angle * speedAfter(currentSpeed, ticks) + gravity
+
+	/**
+		* Where a danmaku will be after some ticks. Only exact if [[hasClosedForm]] is true.
+		*/
+	def positionAfter(pos: Vector3, angle: Vector3, currentSpeed: Double, ticks: Int): Vector3 =
+		pos.offset(angle, distanceAfter(currentSpeed, ticks)) + gravity * ticks
+
+	/**
+		* Where a danmaku that was just spawned, and isn't delayed, will be after some ticks.
+		* Only exact if [[hasClosedForm]] is true.
+		*/
+	def positionAt(spawnPos: Vector3, angle: Vector3, ticks: Int): Vector3 = positionAfter(spawnPos, angle, speedOriginal, ticks)
+
 	def serializeNBT: NBTTagCompound = {
 		val tag = new NBTTagCompound
 		tag.setDouble(MovementData.NbtOriginal, speedOriginal)